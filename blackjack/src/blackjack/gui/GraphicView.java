@@ -5,10 +5,14 @@ import javax.swing.border.Border;
 
 import java.awt.*;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import java.util.List;
 import card.util.CardImageLoader;
 import card.game.Card;
+import card.game.Deck;
 import blackjack.controller.BlackjackController;
 import blackjack.model.Table;
 import blackjack.model.player.Dealer;
@@ -154,9 +158,15 @@ public class GraphicView extends JFrame implements Observateur{
      */
     private JPanel botCardsPanel;
 
+    /**
+     * Préchargement en arrière-plan des images des cartes.
+     */
+    private CompletableFuture<Void> imagePreload;
+
     /**
      * Construit la vue graphique du jeu de blackjack.
-     * Initialise la fenêtre principale, s'enregistre comme observateur de la table,
+     * Lance le préchargement des images des cartes en arrière-plan,
+     * initialise la fenêtre principale, s'enregistre comme observateur de la table,
      * configure les paramètres de la fenêtre et construit l'interface utilisateur.
      * 
      * @param table la table de jeu à afficher
@@ -166,6 +176,7 @@ public class GraphicView extends JFrame implements Observateur{
 
         this.table = table;
         this.controller = controller;
+        this.startImagePreload();
         table.addObservateur(this);
 
         setTitle("Blackjack Game");
@@ -177,6 +188,22 @@ public class GraphicView extends JFrame implements Observateur{
         setVisible(true); 
     }
 
+    /**
+     * Décode et redimensionne toutes les images des cartes sur un groupe de threads dédié,
+     * pour que le premier affichage des cartes n'ait pas à le faire sur le thread Swing.
+     * Le pool est arrêté une fois toutes les images prêtes.
+     */
+    private void startImagePreload() {
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "card-image-preload");
+            t.setDaemon(true);
+            return t;
+        });
+        this.imagePreload = CardImageLoader.preload(pool);
+        this.imagePreload.whenComplete((done, error) -> pool.shutdown());
+    }
+
     /**
      * Initialise l'interface utilisateur complète.
      * Crée et organise tous les panneaux : dealer (nord), joueur (sud),
@@ -370,6 +397,8 @@ public class GraphicView extends JFrame implements Observateur{
 
 
         startButton = new StartButton(controller);
+        startButton.setReady(imagePreload.isDone());
+        imagePreload.whenComplete((done, error) -> SwingUtilities.invokeLater(() -> startButton.setReady(true)));
         hitButton = new HitButton(controller);
         standButton = new StandButton(controller);
         doubleDumpPanel = new DoubleDumpPanel(controller);
@@ -420,8 +449,9 @@ public class GraphicView extends JFrame implements Observateur{
         playerPotLabel.setText("Pot: " + player.getPot());
 
         dealerCardsPanel.removeAll();
-        for(int i = 0; i < dealer.getHand().getDeck().size(); i++) {
-            Card c = dealer.getHand().getDeck().get(i);
+        Deck dealerHand = dealer.getHand();
+        for(int i = 0; i < dealerHand.size(); i++) {
+            Card c = dealerHand.getCardToIndex(i);
             ImageIcon cardIcon;
             if (i == 0 && !(this.controller.getIsFinished())) {
                 cardIcon = CardImageLoader.loadBack();
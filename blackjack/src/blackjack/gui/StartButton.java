@@ -16,6 +16,16 @@ import java.awt.event.ActionEvent;
  * puis démarre la partie une fois la mise validée.
  */
 public class StartButton extends JButton implements ActionListener{
+    /**
+     * Libellé du bouton, affiché dès que les images des cartes sont prêtes.
+     */
+    private static final String LABEL = "Start Game";
+
+    /**
+     * Libellé affiché pendant le chargement des images des cartes.
+     */
+    private static final String LOADING_LABEL = "Chargement...";
+
     /**
      * Contrôleur gérant la logique du jeu.
      */
@@ -27,11 +37,23 @@ public class StartButton extends JButton implements ActionListener{
      * @param controller le contrôleur du jeu à notifier lors du clic
      */
     public StartButton(BlackjackController controller) {
-        super("Start Game");
+        super(LABEL);
         this.controller = controller;
         this.addActionListener(this);
     }
 
+    /**
+     * Affiche l'état de préparation des images des cartes.
+     * Le bouton reste utilisable pendant le chargement : seules les images
+     * pas encore prêtes seront attendues lors de l'affichage.
+     * 
+     * @param ready true si toutes les images sont prêtes, false si le chargement est en cours
+     */
+    public void setReady(boolean ready) {
+        this.setText(ready ? LABEL : LOADING_LABEL);
+        this.setToolTipText(ready ? null : "Préparation des images des cartes en cours");
+    }
+
     /**
      * Gère l'action de clic sur le bouton.
      * Si aucune partie n'est en cours, ouvre une fenêtre pour saisir la mise
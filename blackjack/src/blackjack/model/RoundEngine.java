@@ -0,0 +1,169 @@
+package blackjack.model;
+
+import java.util.List;
+import java.util.Map;
+
+import blackjack.model.player.*;
+
+/**
+ * Moteur de manches sans interface : enchaîne des manches complètes sur une {@link Table}
+ * (mises, distribution, décisions des joueurs, jeu du croupier, règlement) sans affichage,
+ * sans Swing et sans autre notification que celles des observateurs éventuellement abonnés
+ * à la table.
+ *
+ * Le déroulement est celui de {@link blackjack.gui.LauncherTerminal}. Les joueurs doivent
+ * décider seuls (bots, croupier) : un joueur humain bloquerait la simulation sur la console.
+ */
+public class RoundEngine {
+
+    /**
+     * La table sur laquelle les manches sont jouées.
+     */
+    private final Table table;
+
+    /**
+     * Nombre de manches jouées depuis la création du moteur.
+     */
+    private long roundsPlayed;
+
+    /**
+     * Capital de chaque joueur au début de la manche en cours.
+     */
+    private int[] potsBefore = new int[0];
+
+    /**
+     * Mise finale (doublement compris) de chaque joueur lors de la dernière manche.
+     */
+    private int[] lastBets = new int[0];
+
+    /**
+     * Gain net de chaque joueur lors de la dernière manche.
+     */
+    private int[] lastNets = new int[0];
+
+    /**
+     * Indique pour chaque joueur s'il a reçu un blackjack lors de la dernière manche.
+     */
+    private boolean[] lastBlackjacks = new boolean[0];
+
+    /**
+     * Construit un moteur de manches pour une table.
+     * 
+     * @param table la table, dont le premier joueur est le croupier
+     */
+    public RoundEngine(Table table){
+        this.table = table;
+    }
+
+    /**
+     * Retourne la table du moteur.
+     * 
+     * @return la table
+     */
+    public Table getTable(){
+        return this.table;
+    }
+
+    /**
+     * Retourne le nombre de manches jouées.
+     * 
+     * @return le nombre de manches
+     */
+    public long getRoundsPlayed(){
+        return this.roundsPlayed;
+    }
+
+    /**
+     * Retourne la mise finale d'un joueur lors de la dernière manche, doublement compris.
+     * 
+     * @param seat la position du joueur à la table (0 pour le croupier)
+     * @return la mise, 0 pour le croupier
+     */
+    public int getLastBet(int seat){
+        return this.lastBets[seat];
+    }
+
+    /**
+     * Retourne le gain net d'un joueur lors de la dernière manche.
+     * 
+     * @param seat la position du joueur à la table (0 pour le croupier)
+     * @return la variation du capital du joueur pendant la manche
+     */
+    public int getLastNet(int seat){
+        return this.lastNets[seat];
+    }
+
+    /**
+     * Indique si un joueur a reçu un blackjack lors de la dernière manche.
+     * 
+     * @param seat la position du joueur à la table (0 pour le croupier)
+     * @return true si ses deux premières cartes formaient un blackjack
+     */
+    public boolean wasLastBlackjack(int seat){
+        return this.lastBlackjacks[seat];
+    }
+
+    /**
+     * Joue plusieurs manches complètes à la suite.
+     * 
+     * @param rounds le nombre de manches à jouer
+     */
+    public void playRounds(long rounds){
+        for(long i = 0; i < rounds; i++){
+            this.playRound();
+        }
+    }
+
+    /**
+     * Joue une manche complète puis remet la table en état pour la suivante.
+     * Si un joueur a un blackjack dès la distribution, la manche est réglée immédiatement.
+     */
+    public void playRound(){
+        Table table = this.table;
+        List<Player> players = table.getPlayers();
+        int seats = players.size();
+        if(this.potsBefore.length != seats){
+            this.potsBefore = new int[seats];
+            this.lastBets = new int[seats];
+            this.lastNets = new int[seats];
+            this.lastBlackjacks = new boolean[seats];
+        }
+        for(int i = 0; i < seats; i++){
+            this.potsBefore[i] = players.get(i).getPot();
+        }
+        table.placeAllBet();
+        table.initRound();
+        for(int i = 0; i < seats; i++){
+            this.lastBlackjacks[i] = players.get(i).getHandState().isBlackjack();
+        }
+
+        if(!table.blackjack()){
+            for(int i = 1; i < players.size(); i++){
+                Player player = players.get(i);
+                if(player.doubleDump()){
+                    table.doubleDumpSituation(player);
+                }else{
+                    while(player.getHandValue() <= 21 && player.continueChoice()){
+                        table.giveCard(player);
+                    }
+                }
+            }
+            Player dealer = players.get(0);
+            while(dealer.getHandValue() <= 21 && dealer.continueChoice()){
+                table.giveCard(dealer);
+            }
+        }
+
+        table.findWinners();
+        table.dealCoins();
+        Map<Player, Integer> bets = table.getBets();
+        for(int i = 0; i < seats; i++){
+            Player player = players.get(i);
+            Integer bet = bets.get(player);
+            this.lastBets[i] = bet == null ? 0 : bet;
+            this.lastNets[i] = player.getPot() - this.potsBefore[i];
+        }
+        table.resetRound();
+        this.roundsPlayed++;
+    }
+}
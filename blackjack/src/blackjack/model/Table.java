@@ -6,8 +6,9 @@ import java.util.*;
 import card.game.*;
 import blackjack.model.player.*;
 import blackjack.util.Observateur;
+import blackjack.util.ObservateurCartes;
 import blackjack.util.ModeleObservable;
-import card.util.FactoryCard;
+import card.util.RandomSource;
 
 /**
  * Représente une table de blackjack gérant une partie complète.
@@ -23,9 +24,9 @@ public class Table extends ModeleObservable {
 	private List<Player> players;
     
     /**
-     * Le paquet de cartes utilisé pour la partie.
+     * Le sabot utilisé pour la partie, conservé d'une manche à l'autre.
      */
-	private Deck cardGame;
+	private Shoe cardGame;
     
     /**
      * Mise minimale autorisée à la table.
@@ -47,19 +48,57 @@ public class Table extends ModeleObservable {
      */
     private Map<Player, Integer> bets = new HashMap<>();
 
+    /**
+     * Tampon réutilisé pour la distribution groupée des cartes.
+     */
+    private int[] dealBuffer = new int[0];
+
+    /**
+     * Observateurs prévenus de chaque carte rendue visible et de chaque mélange du sabot.
+     */
+    private final List<ObservateurCartes> observateursCartes = new ArrayList<>();
+
+    /**
+     * Nombre de mélanges du sabot déjà signalés aux observateurs des cartes.
+     */
+    private int shuffleCount;
+
+    /**
+     * Valeur de shuffleCount lorsque la carte cachée du croupier a été distribuée : elle n'est
+     * révélée aux observateurs des cartes que si le sabot n'a pas été remélangé entre-temps.
+     */
+    private int holeCardShuffle;
+
     /**
      * Construit une nouvelle table de blackjack avec les paramètres spécifiés.
      * 
      * @param players liste des joueurs à la table (le croupier doit être en première position)
      * @param betMin mise minimale autorisée à la table
      * @param betMax mise maximale autorisée à la table
+     * @param shoe le sabot dans lequel les cartes sont tirées
      */
-	public Table(List<Player> players, int betMin, int betMax) {
+	public Table(List<Player> players, int betMin, int betMax, Shoe shoe) {
 		this.players= players;
-		
-		//this.cardGame = Factory;
+		this.cardGame = shoe;
 		this.betMin = betMin;
 		this.betMax = betMax;
+		this.shuffleCount = shoe.getShuffleCount();
+		for(Player p : players){
+			if(p instanceof ObservateurCartes){
+				this.addObservateurCartes((ObservateurCartes) p);
+			}
+		}
+	} 
+
+    /**
+     * Construit une nouvelle table de blackjack jouée avec un sabot d'un seul jeu de 52 cartes.
+     * 
+     * @param players liste des joueurs à la table (le croupier doit être en première position)
+     * @param betMin mise minimale autorisée à la table
+     * @param betMax mise maximale autorisée à la table
+     */
+	public Table(List<Player> players, int betMin, int betMax) {
+		this(players, betMin, betMax, new Shoe(1));
 	} 
 
     /**
@@ -71,6 +110,26 @@ public class Table extends ModeleObservable {
         super.ajouterObservateur(o);        
     }
 
+    /**
+     * Ajoute un observateur des cartes : il sera prévenu de chaque carte rendue visible
+     * et de chaque mélange du sabot. Les joueurs qui implémentent {@link ObservateurCartes}
+     * sont ajoutés automatiquement à la construction de la table.
+     * 
+     * @param o l'observateur à ajouter
+     */
+    public void addObservateurCartes(ObservateurCartes o) {
+        this.observateursCartes.add(o);
+    }
+
+    /**
+     * Retire un observateur des cartes.
+     * 
+     * @param o l'observateur à retirer
+     */
+    public void removeObservateurCartes(ObservateurCartes o) {
+        this.observateursCartes.remove(o);
+    }
+
     /**
      * Retourne la liste des joueurs présents à la table.
      * 
@@ -81,14 +140,31 @@ public class Table extends ModeleObservable {
 	}
 	
     /**
-     * Retourne le paquet de cartes utilisé pour la partie.
+     * Retourne le sabot utilisé pour la partie.
      * 
-     * @return le paquet de cartes
+     * @return le sabot
      */
-	public Deck getCardGame() {
+	public Shoe getCardGame() {
 		return this.cardGame;
 	}
 	
+    /**
+     * Attribue à la table une source de hasard unique.
+     * Le sabot et chaque joueur reçoivent une source dérivée par {@link RandomSource#split()},
+     * puis le sabot est reconstitué et remélangé : avec une source initialisée par une graine,
+     * toutes les manches suivantes sont reproductibles à l'identique.
+     * À appeler entre deux manches.
+     * 
+     * @param random la source de hasard de la table
+     */
+    public void setRandom(RandomSource random) {
+        this.cardGame.setRandom(random.split());
+        for(Player p : this.players){
+            p.setRandom(random.split());
+        }
+        this.cardGame.reset();
+    }
+
     /**
      * Retourne la mise minimale autorisée à la table.
      * 
@@ -164,39 +240,118 @@ public class Table extends ModeleObservable {
     
 	/**
      * Distribue une carte du paquet au joueur spécifié et notifie les observateurs.
+     * Les observateurs des cartes reçoivent la carte, sauf s'il s'agit de la carte cachée du croupier.
      * 
      * @param player le joueur qui reçoit la carte
      */
 	public void giveCard(Player player) {
 		Card cardToGive = this.cardGame.draw();
+		this.checkShuffle();
 		player.addNewCard(cardToGive);
+		if(player != this.players.get(0) || player.getHand().size() > 1){
+			this.cardSeen(cardToGive.getOrdinal());
+		}
+		else{
+			this.holeCardShuffle = this.shuffleCount;
+		}
         notifierObservateurs();
 	}
 
     /**
-     * Initialise une nouvelle manche de jeu.
-     * Crée un nouveau paquet de 52 cartes, le mélange, le coupe,
-     * puis distribue 2 cartes à chaque joueur. Notifie les observateurs.
+     * Distribue plusieurs cartes à chaque joueur, une à la fois et chacun son tour
+     * comme à une vraie table, en tirant toutes les cartes du sabot d'un seul coup.
+     * Les observateurs ne sont notifiés qu'une fois, après la distribution. Si le sabot est
+     * remélangé en cours de tirage, les observateurs des cartes reçoivent d'abord les cartes
+     * tirées avant le mélange, puis le mélange, puis les cartes tirées après.
+     * 
+     * @param cardsPerPlayer le nombre de cartes à donner à chaque joueur
      */
-    public void initRound(){
-        this.cardGame = FactoryCard.create52Deck();
-        this.cardGame.shuffle();
-        this.cardGame.cut();
-        for(int i = 0; i < 2; i++) {
-            for(Player p : this.players){
-                this.giveCard(p);
+    public void giveCards(int cardsPerPlayer) {
+        int seats = this.players.size();
+        int n = cardsPerPlayer * seats;
+        if(this.dealBuffer.length < n){
+            this.dealBuffer = new int[n];
+        }
+        this.checkShuffle();
+        // le sabot n'est remélangé que lorsqu'il est vide : seules ses cartes actuelles
+        // précèdent un éventuel mélange
+        int beforeShuffle = this.cardGame.size();
+        this.cardGame.draw(n, this.dealBuffer);
+        for(int i = 0; i < n; i++){
+            if(i == beforeShuffle){
+                this.checkShuffle();
             }
-		}
+            int seat = i % seats;
+            Player player = this.players.get(seat);
+            player.addNewCard(Card.of(this.dealBuffer[i]));
+            if(seat != 0 || player.getHand().size() > 1){
+                this.cardSeen(this.dealBuffer[i]);
+            }
+            else{
+                this.holeCardShuffle = this.shuffleCount;
+            }
+        }
+        this.checkShuffle();
         notifierObservateurs();
     }
 
+    /**
+     * Signale une carte visible aux observateurs des cartes.
+     * 
+     * @param ordinal l'ordinal de la carte
+     */
+    private void cardSeen(int ordinal) {
+        for(int i = 0; i < this.observateursCartes.size(); i++){
+            this.observateursCartes.get(i).carteVue(ordinal);
+        }
+    }
+
+    /**
+     * Signale aux observateurs des cartes un mélange du sabot survenu depuis le dernier tirage.
+     */
+    private void checkShuffle() {
+        int count = this.cardGame.getShuffleCount();
+        if(count != this.shuffleCount){
+            this.shuffleCount = count;
+            for(int i = 0; i < this.observateursCartes.size(); i++){
+                this.observateursCartes.get(i).sabotMelange();
+            }
+        }
+    }
+
+    /**
+     * Initialise une nouvelle manche de jeu.
+     * Remélange le sabot si la carte de coupe est sortie lors de la manche précédente,
+     * puis distribue 2 cartes à chaque joueur et leur indique la carte visible du croupier.
+     * Notifie les observateurs.
+     */
+    public void initRound(){
+        this.cardGame.reshuffleIfNeeded();
+        this.giveCards(2);
+        Card upCard = ((Dealer) this.players.get(0)).getUpCard();
+        for(int i = 1; i < this.players.size(); i++){
+            this.players.get(i).setDealerUpCard(upCard);
+        }
+    }
+
     /**
      * Réinitialise la table pour une nouvelle manche.
-     * Vide les mains de tous les joueurs, remet leurs valeurs à zéro,
-     * et efface les listes des gagnants et des mises. Notifie les observateurs.
+     * Révèle la carte cachée du croupier aux observateurs des cartes (sauf si elle a été tirée
+     * avant un mélange du sabot survenu depuis, car leur compte ne la concerne plus), puis range les cartes
+     * de tous les joueurs dans la défausse du sabot, vide leurs mains, remet leurs valeurs
+     * à zéro, et efface les listes des gagnants et des mises.
+     * Notifie les observateurs.
      */
     public void resetRound(){
+        Deck dealerHand = this.players.get(0).getHand();
+        if(dealerHand.size() > 0 && this.holeCardShuffle == this.shuffleCount){
+            this.cardSeen(dealerHand.ordinalAt(0));
+        }
         for(Player p : this.players){
+            Deck hand = p.getHand();
+            for(int i = 0; i < hand.size(); i++){
+                this.cardGame.discardOrdinal(hand.ordinalAt(i));
+            }
             p.clearHand();
             p.setHandValue(0);
         }
@@ -270,15 +425,19 @@ public class Table extends ModeleObservable {
     /**
      * Distribue les gains et retire les mises perdues.
      * Pour chaque joueur ayant parié : ajoute sa mise à son pot s'il a gagné,
-     * retire sa mise de son pot s'il a perdu. Notifie les observateurs.
+     * retire sa mise de son pot s'il a perdu, puis transmet le règlement à sa stratégie de mise
+     * (voir {@link Player#settleBet(int, int)}). Notifie les observateurs.
      */
     public void dealCoins(){
         for(Player player: this.bets.keySet()){
+            int bet = this.bets.get(player);
+            int before = player.getPot();
             if(this.winners.contains(player)){
-                player.winCoins(bets.get(player));
+                player.winCoins(bet);
             }else{
-                player.looseCoins(bets.get(player));
+                player.looseCoins(bet);
             }
+            player.settleBet(bet, player.getPot() - before);
         }
         notifierObservateurs();
     }
@@ -313,24 +472,32 @@ public class Table extends ModeleObservable {
         // Parcours de tous les joueurs humains
         for (int i = 1; i < this.players.size(); i++) {
             int playerValue = this.players.get(i).getHandValue();
-
-            
-            boolean playerNotBusted = playerValue <= 21;
-            boolean dealerBusted = dealerHandValue > 21;
-            boolean playerBeatsDealer = playerValue > dealerHandValue;
-
-            if(blackjack){
-                // Si un joueur a un blackjack, il gagne automatiquement
-                if(playerValue == 21 && playerBeatsDealer){
-                    this.winners.add(this.players.get(i));
-                }
-            }
-
-            // Condition unique : le joueur gagne si le dealer a busté ou s'il le bat
-            else if (playerNotBusted && (dealerBusted || playerBeatsDealer)) {
+            if (isWinner(playerValue, dealerHandValue, blackjack)) {
                 this.winners.add(this.players.get(i));
             }
         }
         // notifierObservateurs();
     }
+
+    /**
+     * Applique la règle de {@link #findWinners()} à une seule main, sans objet joueur :
+     * utilisée aussi par les simulations qui représentent les mains par de simples totaux.
+     * 
+     * @param playerValue la valeur de la main du joueur
+     * @param dealerValue la valeur de la main du croupier
+     * @param blackjack true si au moins une main de la table vaut 21 (voir {@link #blackjack()})
+     * @return true si le joueur gagne
+     */
+    public static boolean isWinner(int playerValue, int dealerValue, boolean blackjack) {
+        boolean playerNotBusted = playerValue <= 21;
+        boolean dealerBusted = dealerValue > 21;
+        boolean playerBeatsDealer = playerValue > dealerValue;
+
+        if(blackjack){
+            // Si un joueur a un blackjack, il gagne automatiquement
+            return playerValue == 21 && playerBeatsDealer;
+        }
+        // Condition unique : le joueur gagne si le dealer a busté ou s'il le bat
+        return playerNotBusted && (dealerBusted || playerBeatsDealer);
+    }
 }
\ No newline at end of file
@@ -2,8 +2,12 @@ package blackjack.model;
 import java.util.*;
 
 import card.game.*;
+import blackjack.model.betting.*;
 import blackjack.model.player.*;
+import blackjack.model.simulation.*;
+import blackjack.model.strategy.*;
 import card.util.FactoryCard;
+import card.util.RandomSource;
 
 /**
  * fait des Test sur toutes les méthodes du model (quand c'est possible)
@@ -105,5 +109,279 @@ public class TestModel{
         ok = ok && (ia.getPot()==80);
         System.out.println(ok ? "(dealCoins) tests OK" : "(dealCoins) test KO");
 
+        // tests sur l'As souple : un 17 souple qui reçoit un 10 redevient un 17 dur
+        Bot soft = new Bot("Soft");
+        soft.addNewCard(carte2);
+        soft.addNewCard(new Card("Trefle", "6", 6));
+        ok = ok && (soft.getHandValue()==17);
+        ok = ok && (soft.getHandState().isSoft());
+        soft.addNewCard(carte1);
+        ok = ok && (soft.getHandValue()==17);
+        ok = ok && (soft.getHandState().isSoft() == false);
+        soft.addNewCard(carte2);
+        ok = ok && (soft.getHandValue()==18);
+        soft.addNewCard(carte1);
+        ok = ok && (soft.getHandState().isBust());
+        soft.clearHand();
+        soft.addNewCard(carte1);
+        soft.addNewCard(carte2);
+        ok = ok && (soft.getHandState().isBlackjack());
+        System.out.println(ok ? "(hand) tests OK" : "(hand) test KO");
+
+        // tests sur le moteur de manches : deux tables de même graine jouent les mêmes manches,
+        // chaque main misée rapporte ou coûte exactement sa mise (les égalités sont perdues), une
+        // place sans capital ne mise rien et garde son capital, et les cartes finissent à la défausse
+        Table[] engineTables = new Table[2];
+        RoundEngine[] engines = new RoundEngine[2];
+        for(int t = 0; t < 2; t++){
+            List<Player> ePlayers = new ArrayList<Player>();
+            ePlayers.add(new Dealer("Croupier", 1000000));
+            ePlayers.add(new StrategyBot("Joueur", 1000000));
+            ePlayers.add(new Bot("IA", 1000000));
+            ePlayers.add(new Bot("Fauché", 0));
+            engineTables[t] = new Table(ePlayers, 5, 10, new Shoe(2));
+            engineTables[t].setRandom(RandomSource.seeded(5));
+            engines[t] = new RoundEngine(engineTables[t]);
+        }
+        Shoe eShoe = engineTables[0].getCardGame();
+        List<Player> ePlayers = engineTables[0].getPlayers();
+        for(int r = 0; r < 2000; r++){
+            int[] potsBefore = new int[ePlayers.size()];
+            for(int seat = 0; seat < ePlayers.size(); seat++){
+                potsBefore[seat] = ePlayers.get(seat).getPot();
+            }
+            engines[0].playRound();
+            engines[1].playRound();
+            for(int seat = 1; seat < ePlayers.size(); seat++){
+                int bet = engines[0].getLastBet(seat);
+                int net = engines[0].getLastNet(seat);
+                ok = ok && (bet == engines[1].getLastBet(seat) && net == engines[1].getLastNet(seat));
+                ok = ok && (ePlayers.get(seat).getPot() - potsBefore[seat] == net);
+                ok = ok && (seat == 3 ? bet == 0 && net == 0 : bet >= 5 && (net == bet || net == -bet));
+            }
+            for(Player p : ePlayers){
+                ok = ok && (p.getHand().isEmpty() && p.getHandValue() == 0);
+            }
+            ok = ok && (eShoe.size() + eShoe.getDiscards().size() == 2 * 52);
+        }
+        ok = ok && (engines[0].getRoundsPlayed() == 2000);
+        ok = ok && (ePlayers.get(1).getPot() == engineTables[1].getPlayers().get(1).getPot());
+        System.out.println(ok ? "(roundEngine) tests OK" : "(roundEngine) test KO");
+
+        // tests sur le simulateur de Monte Carlo : le capital est rétabli à chaque manche, donc
+        // aucune main n'est jouée sans mise, et le résultat ne dépend pas du nombre de threads
+        MonteCarloSimulator monteCarlo = new MonteCarloSimulator(() -> {
+            List<Player> mPlayers = new ArrayList<Player>();
+            mPlayers.add(new Dealer("Croupier", 1000000));
+            mPlayers.add(new StrategyBot("Joueur"));
+            return new Table(mPlayers, 5, 10, new Shoe(6));
+        }, 3);
+        monteCarlo.setChunkRounds(2500);
+        SimulationStats mc1 = monteCarlo.run(20000, new java.util.concurrent.ForkJoinPool(1));
+        SimulationStats mcN = monteCarlo.run(20000, new java.util.concurrent.ForkJoinPool(4));
+        ok = ok && (mc1.getHands() == 20000 && mc1.getPushes() == 0 && mc1.getWagered() >= 5 * mc1.getHands());
+        ok = ok && (mc1.getWins() > 5000 && mc1.getLosses() > 5000);
+        ok = ok && (mc1.toString().equals(mcN.toString()) && mc1.getNet() == mcN.getNet());
+        System.out.println(ok ? "(monteCarlo) tests OK" : "(monteCarlo) test KO");
+
+        // tests sur le simulateur par lots : ses voies jouent le même jeu que le modèle objet
+        // (un Bot seul contre le croupier), aux fluctuations d'échantillonnage près
+        MonteCarloSimulator objectModel = new MonteCarloSimulator(() -> {
+            List<Player> bPlayers = new ArrayList<Player>();
+            bPlayers.add(new Dealer("Croupier", 1000000));
+            bPlayers.add(new Bot("IA", 1000));
+            return new Table(bPlayers, 5, 10, new Shoe(6, Shoe.DEFAULT_PENETRATION));
+        }, 11);
+        SimulationStats objectStats = objectModel.run(200000);
+        SimulationStats batchStats = new BatchSimulator(6, Shoe.DEFAULT_PENETRATION, 5, 10, RandomSource.seeded(11)).run(200000);
+        double objectHands = objectStats.getHands();
+        double batchHands = batchStats.getHands();
+        ok = ok && (objectHands == 200000 && batchHands == 200000);
+        ok = ok && (Math.abs(objectStats.getWins() / objectHands - batchStats.getWins() / batchHands) < 0.01);
+        ok = ok && (Math.abs(objectStats.getLosses() / objectHands - batchStats.getLosses() / batchHands) < 0.01);
+        ok = ok && (Math.abs(objectStats.getPushes() / objectHands - batchStats.getPushes() / batchHands) < 0.01);
+        ok = ok && (Math.abs(objectStats.blackjackFrequency() - batchStats.blackjackFrequency()) < 0.005);
+        ok = ok && (Math.abs(objectStats.edge() - batchStats.edge()) < 0.02);
+        System.out.println(ok ? "(batch) tests OK" : "(batch) test KO");
+
+        // tests sur la stratégie de base (égalités rendues, croupier restant sur 17)
+        BasicStrategy basic = BasicStrategy.of(new Rules(false, false));
+        ok = ok && (basic == BasicStrategy.of(new Rules(false, false)));
+        ok = ok && (basic.decide(16, false, 10, false) == BasicStrategy.Action.HIT);
+        ok = ok && (basic.decide(12, false, 4, false) == BasicStrategy.Action.STAND);
+        ok = ok && (basic.decide(11, false, 6, true) == BasicStrategy.Action.DOUBLE);
+        ok = ok && (basic.decide(11, false, 6, false) == BasicStrategy.Action.HIT);
+        ok = ok && (basic.decide(18, true, 9, false) == BasicStrategy.Action.HIT);
+        ok = ok && (basic.decide(17, false, 1, false) == BasicStrategy.Action.STAND);
+        StrategyBot sb = new StrategyBot("Strategy");
+        sb.addNewCard(new Card("Trefle", "6", 6));
+        sb.addNewCard(carte3);
+        sb.setDealerUpCard(new Card("Coeur", "6", 6));
+        ok = ok && (sb.doubleDump());
+        sb.setDealerUpCard(carte2);
+        ok = ok && (!sb.doubleDump() && sb.continueChoice());
+        sb.clearHand();
+        ok = ok && (sb.getDealerUpCard() == null);
+        // à la table, un 21 perd contre un croupier qui saute : 11 contre 10 ne se double plus
+        ok = ok && (Rules.TABLE.twentyOneLosesToBust() && !new Rules(false, true).twentyOneLosesToBust());
+        ok = ok && (BasicStrategy.of(Rules.TABLE).decide(11, false, 10, true) == BasicStrategy.Action.HIT);
+        ok = ok && (BasicStrategy.of(new Rules(false, true)).decide(11, false, 10, true) == BasicStrategy.Action.DOUBLE);
+        System.out.println(ok ? "(strategy) tests OK" : "(strategy) test KO");
+
+        // tests sur les probabilités du croupier : un 6 visible avec deux 10 restants
+        // finit forcément à 6 + 10 + 10 (bust) ; dans un sabot complet les issues somment à 1
+        DealerProbabilities odds = new DealerProbabilities(Rules.TABLE);
+        RankCounts onlyTen = new RankCounts();
+        onlyTen.addRank(8, 2);
+        ok = ok && (odds.outcomes(6, onlyTen)[DealerProbabilities.BUST] == 1);
+        RankCounts shoe = RankCounts.ofDecks(6);
+        double[] up6 = odds.outcomes(6, shoe);
+        double sum = 0;
+        for (double p : up6) {
+            sum += p;
+        }
+        ok = ok && (Math.abs(sum - 1) < 1e-9);
+        ok = ok && (up6[DealerProbabilities.BUST] > 0.4 && up6[DealerProbabilities.BUST] < 0.45);
+        ok = ok && (odds.cacheSize() == 2 && odds.outcomes(6, shoe)[0] == up6[0]);
+        System.out.println(ok ? "(dealerProbabilities) tests OK" : "(dealerProbabilities) test KO");
+
+        // tests sur le solveur d'espérance : 11 contre 6 se double, 20 contre 10 se garde
+        ExpectedValueSolver solver = new ExpectedValueSolver(Rules.TABLE);
+        Hand eleven = new Hand();
+        eleven.add(new Card("Trefle", "6", 6));
+        eleven.add(carte3);
+        ExpectedValueSolver.Evaluation ev = solver.evaluate(eleven, 6, shoe);
+        ok = ok && (ev.best(true) == BasicStrategy.Action.DOUBLE && ev.best(false) == BasicStrategy.Action.HIT);
+        ok = ok && (ev.doubleDown() > ev.hit() && ev.hit() > ev.stand());
+        // la composition donnée par valeur donne exactement la même évaluation
+        int[] valueCounts = new int[11];
+        for(int value = 1; value <= 10; value++){
+            valueCounts[value] = shoe.countValue(value);
+        }
+        ExpectedValueSolver.Evaluation byValue = solver.evaluate(eleven.getState(), 6, valueCounts);
+        ok = ok && (byValue.stand() == ev.stand() && byValue.hit() == ev.hit() && byValue.doubleDown() == ev.doubleDown());
+        Hand twenty = new Hand();
+        twenty.add(carte1);
+        twenty.add(new Card("Pique", "Roi", 10));
+        ev = solver.evaluate(twenty, 10, shoe);
+        ok = ok && (ev.best(true) == BasicStrategy.Action.STAND && ev.stand() > 0);
+        // un 21 face au 6 gagne presque toujours, sauf à la table où le croupier qui saute le bat
+        Hand twentyOne = new Hand();
+        twentyOne.add(carte1);
+        twentyOne.add(carte3);
+        twentyOne.add(new Card("Trefle", "6", 6));
+        double tableStand = solver.evaluate(twentyOne, 6, shoe).stand();
+        double standardStand = new ExpectedValueSolver(new Rules(false, true)).evaluate(twentyOne, 6, shoe).stand();
+        ok = ok && (standardStand > 0.8 && tableStand < 0.3 && tableStand > -0.3);
+        System.out.println(ok ? "(expectedValue) tests OK" : "(expectedValue) test KO");
+
+        // tests sur les hachages de Zobrist : ils ne dépendent que de la composition
+        Shoe zShoe = new Shoe(2);
+        ok = ok && (zShoe.compositionHash() == RankCounts.ofDecks(2).zobristHash());
+        zShoe.drawOrdinal();
+        ok = ok && (zShoe.compositionHash() != RankCounts.ofDecks(2).zobristHash());
+        ok = ok && (zShoe.compositionHash() == RankCounts.of(zShoe).zobristHash());
+        Hand h1 = new Hand();
+        Hand h2 = new Hand();
+        h1.add(carte1);
+        h1.add(carte3);
+        h2.add(carte3);
+        h2.add(new Card("Trefle", "10", 10));
+        ok = ok && (h1.zobristHash() == h2.zobristHash());
+        h2.clear();
+        ok = ok && (h2.zobristHash() == 0 && h1.zobristHash() != 0);
+        System.out.println(ok ? "(zobrist) tests OK" : "(zobrist) test KO");
+
+        // tests sur le bot compteur : il suit le compte Hi-Lo des cartes vues à la table
+        CountingBot counter = new CountingBot("Compteur", 1000, 1);
+        counter.carteVue(carte3.getOrdinal());
+        counter.carteVue(carte3.getOrdinal());
+        ok = ok && (counter.getRunningCount() == 2 && counter.getTrueCount() > 2);
+        ok = ok && (counter.placeBet(5, 100) == 10);
+        counter.carteVue(carte1.getOrdinal());
+        counter.carteVue(carte2.getOrdinal());
+        ok = ok && (counter.getRunningCount() == 0 && counter.placeBet(5, 100) == 5);
+        counter.sabotMelange();
+        Shoe cShoe = new Shoe(1);
+        Dealer cDealer = new Dealer("Croupier", 10000);
+        List<Player> cPlayers = new ArrayList<Player>();
+        cPlayers.add(cDealer);
+        cPlayers.add(counter);
+        Table cTable = new Table(cPlayers, 5, 10, cShoe);
+        cTable.initRound();
+        cTable.resetRound();
+        ok = ok && (counter.getRunningCount() == cShoe.runningCount());
+        // sabot remélangé au milieu de la distribution : seules les cartes tirées après le mélange
+        // comptent, et la carte cachée, tirée avant, n'est pas révélée au compteur
+        cTable.initRound();
+        cTable.resetRound();
+        int[] drawn = new int[cShoe.size() - 3];
+        cShoe.draw(drawn.length, drawn);
+        for(int ordinal : drawn){
+            cShoe.discardOrdinal(ordinal);
+        }
+        cTable.giveCards(2);
+        int lastCard = counter.getHand().ordinalAt(1);
+        ok = ok && (counter.getRunningCount() == RankCounts.hiLoTag(Card.rankOf(lastCard)));
+        ok = ok && (Math.abs(counter.getTrueCount() * 51 - counter.getRunningCount() * 52) < 1e-9);
+        cTable.resetRound();
+        ok = ok && (counter.getRunningCount() == RankCounts.hiLoTag(Card.rankOf(lastCard)));
+        System.out.println(ok ? "(counting) tests OK" : "(counting) test KO");
+
+        // tests sur les stratégies de mise
+        ok = ok && (new FlatBetting(3).bet(1000, 5, 100) == 15 && new FlatBetting(3).bet(12, 5, 100) == 12);
+        MartingaleBetting martingale = new MartingaleBetting();
+        ok = ok && (martingale.bet(100, 5, 30) == 5);
+        martingale.result(5, -5);
+        ok = ok && (martingale.bet(95, 5, 30) == 10);
+        martingale.result(10, -10);
+        martingale.result(0, 0);
+        ok = ok && (martingale.bet(85, 5, 30) == 20);
+        martingale.result(20, -20);
+        ok = ok && (martingale.bet(65, 5, 30) == 30 && martingale.bet(12, 5, 30) == 12);
+        martingale.result(30, 30);
+        ok = ok && (martingale.bet(95, 5, 30) == 5);
+        // la table règle la martingale elle-même : sa progression survit au capital rétabli
+        // à chaque manche par le simulateur de Monte Carlo
+        long[] wagered = new long[2];
+        for(int m = 0; m < 2; m++){
+            boolean useMartingale = m == 1;
+            MonteCarloSimulator betting = new MonteCarloSimulator(() -> {
+                List<Player> bPlayers = new ArrayList<Player>();
+                bPlayers.add(new Dealer("Croupier", 1000000));
+                bPlayers.add(new StrategyBot("Joueur", 1000));
+                bPlayers.get(1).setBettingStrategy(useMartingale ? new MartingaleBetting() : new FlatBetting());
+                return new Table(bPlayers, 5, 100, new Shoe(6));
+            }, 11);
+            wagered[m] = betting.run(20000).getWagered();
+        }
+        ok = ok && (wagered[1] > 3 * wagered[0] / 2);
+        ok = ok && (new RampBetting(() -> 3.7, 2).bet(1000, 5, 100) == 10 && new RampBetting(() -> -2, 8).bet(1000, 5, 100) == 5);
+        KellyBetting kelly = new KellyBetting(() -> 0.02, 1.0, 0.5);
+        ok = ok && (kelly.bet(10000, 5, 1000) == 100 && kelly.bet(10000, 5, 50) == 50);
+        ok = ok && (new KellyBetting(() -> -0.1, 1.0).bet(10000, 5, 1000) == 5);
+        Bot flat = new Bot("Flat", 3);
+        flat.setBettingStrategy(new FlatBetting());
+        ok = ok && (flat.placeBet(5, 10) == 3);
+        System.out.println(ok ? "(betting) tests OK" : "(betting) test KO");
+
+        // tests sur le risque de ruine : trajectoires reproductibles, quel que soit le pool
+        RiskOfRuinSimulator ruin = new RiskOfRuinSimulator(() -> {
+            List<Player> rPlayers = new ArrayList<Player>();
+            rPlayers.add(new Dealer("Croupier", 1000000));
+            rPlayers.add(new StrategyBot("Joueur", 50));
+            rPlayers.get(1).setBettingStrategy(new FlatBetting());
+            return new Table(rPlayers, 5, 10, new Shoe(2));
+        }, 100, 7);
+        ruin.setMaxRounds(200);
+        ruin.setResolution(10, 20);
+        RuinStats rs = ruin.run(128);
+        RuinStats rs1 = ruin.run(128, new java.util.concurrent.ForkJoinPool(1), null);
+        ok = ok && (rs.getTrajectories() == 128 && rs.getRuined() + rs.getReachedTarget() + rs.getUnfinished() == 128);
+        ok = ok && (rs.getRuined() == rs1.getRuined() && rs.getRounds() == rs1.getRounds());
+        ok = ok && (rs.riskOfRuin() > 0.5 && rs.ruinedBy(rs.getCheckpoints()) == rs.riskOfRuin());
+        ok = ok && (rs.potPercentile(0, 0.5) >= 50 && rs.potPercentile(0, 0.5) < 55);
+        System.out.println(ok ? "(riskOfRuin) tests OK" : "(riskOfRuin) test KO");
+
     }
 }
\ No newline at end of file
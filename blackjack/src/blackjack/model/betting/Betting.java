@@ -0,0 +1,27 @@
+package blackjack.model.betting;
+
+/**
+ * Outils communs aux stratégies de mise.
+ */
+final class Betting {
+
+    /**
+     * Constructeur privé pour empêcher l'instanciation.
+     * Cette classe ne contient que des méthodes statiques.
+     */
+    private Betting() {}
+
+    /**
+     * Borne une mise souhaitée par les limites de la table, puis par le capital du joueur.
+     *
+     * @param wanted la mise souhaitée
+     * @param pot le capital du joueur
+     * @param betMin la mise minimale autorisée
+     * @param betMax la mise maximale autorisée
+     * @return la mise bornée
+     */
+    static int clamp(long wanted, int pot, int betMin, int betMax) {
+        long bet = Math.max(betMin, Math.min(betMax, wanted));
+        return (int) Math.min(pot, bet);
+    }
+}
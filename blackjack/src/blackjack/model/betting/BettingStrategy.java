@@ -0,0 +1,33 @@
+package blackjack.model.betting;
+
+/**
+ * Stratégie de mise d'un joueur : décide du montant misé au début de chaque manche.
+ *
+ * Une stratégie est consultée une fois par manche, dans la boucle chaude des simulations :
+ * les implémentations ne doivent rien allouer et se contenter de quelques opérations.
+ * Celles qui tiennent compte des manches précédentes apprennent leur résultat par
+ * {@link #result(int, int)}, appelée par la table au règlement ; elles gardent un état propre
+ * à leur joueur, et ne doivent donc pas être partagées entre plusieurs joueurs.
+ *
+ * @see blackjack.model.player.Player#setBettingStrategy(BettingStrategy)
+ */
+public interface BettingStrategy {
+
+    /**
+     * Retourne la mise du joueur pour la manche qui commence.
+     *
+     * @param pot le capital actuel du joueur
+     * @param betMin la mise minimale autorisée
+     * @param betMax la mise maximale autorisée
+     * @return la mise, entre betMin et betMax et au plus égale au capital
+     */
+    public int bet(int pot, int betMin, int betMax);
+
+    /**
+     * Reçoit le règlement de la manche qui se termine. Ne fait rien par défaut.
+     *
+     * @param bet la mise réglée, doublement compris (0 si le joueur n'a rien misé)
+     * @param net le gain net du joueur sur la manche, négatif s'il a perdu
+     */
+    public default void result(int bet, int net) {}
+}
@@ -0,0 +1,38 @@
+package blackjack.model.betting;
+
+/**
+ * Mise constante : le même nombre d'unités à chaque manche, l'unité étant la mise minimale.
+ * C'est la référence à laquelle comparer les autres stratégies.
+ */
+public final class FlatBetting implements BettingStrategy {
+
+    /**
+     * Nombre d'unités misées à chaque manche.
+     */
+    private final int units;
+
+    /**
+     * Construit une mise constante de units fois la mise minimale.
+     *
+     * @param units le nombre d'unités misées, au moins 1
+     * @throws IllegalArgumentException si units est inférieur à 1
+     */
+    public FlatBetting(int units) {
+        if (units < 1) {
+            throw new IllegalArgumentException("units doit être au moins 1 : " + units);
+        }
+        this.units = units;
+    }
+
+    /**
+     * Construit une mise constante égale à la mise minimale.
+     */
+    public FlatBetting() {
+        this(1);
+    }
+
+    @Override
+    public int bet(int pot, int betMin, int betMax) {
+        return Betting.clamp((long) this.units * betMin, pot, betMin, betMax);
+    }
+}
@@ -0,0 +1,75 @@
+package blackjack.model.betting;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Mise de Kelly : la fraction du capital qui maximise la croissance logarithmique du capital,
+ * soit l'avantage du joueur divisé par la variance du gain d'une manche, pour une mise unitaire.
+ *
+ * L'avantage est lu à chaque mise auprès de la source donnée à la construction : il peut venir
+ * du compte vrai (par exemple {@code () -> base + 0.005 * bot.getTrueCount()}) ou d'une
+ * estimation par composition. Une fraction de Kelly inférieure à 1 réduit la variance du
+ * capital au prix d'une croissance plus lente ; 0.5 (« demi-Kelly ») est un choix courant.
+ *
+ * La table impose une mise : quand l'avantage est nul ou négatif, la mise est la mise minimale.
+ * La mise est arrondie à l'unité inférieure puis bornée par les limites de la table et le capital.
+ */
+public final class KellyBetting implements BettingStrategy {
+
+    /**
+     * Variance par défaut du gain d'une manche pour une mise unitaire, doublements compris.
+     */
+    public static final double DEFAULT_VARIANCE = 1.3;
+
+    /**
+     * Source de l'avantage courant du joueur (espérance de gain par unité misée).
+     */
+    private final DoubleSupplier edge;
+
+    /**
+     * Fraction de la mise de Kelly divisée par la variance, précalculée.
+     */
+    private final double scale;
+
+    /**
+     * Construit une mise de Kelly fractionnaire.
+     *
+     * @param edge la source de l'avantage courant, par unité misée
+     * @param variance la variance du gain d'une manche pour une mise unitaire
+     * @param fraction la fraction de la mise de Kelly à miser (1 pour Kelly complet)
+     * @throws IllegalArgumentException si la variance ou la fraction n'est pas strictement positive
+     */
+    public KellyBetting(DoubleSupplier edge, double variance, double fraction) {
+        if (!(variance > 0) || !(fraction > 0)) {
+            throw new IllegalArgumentException("variance et fraction doivent être positives : " + variance + ", " + fraction);
+        }
+        this.edge = edge;
+        this.scale = fraction / variance;
+    }
+
+    /**
+     * Construit une mise de Kelly fractionnaire avec la variance par défaut.
+     *
+     * @param edge la source de l'avantage courant, par unité misée
+     * @param fraction la fraction de la mise de Kelly à miser (1 pour Kelly complet)
+     */
+    public KellyBetting(DoubleSupplier edge, double fraction) {
+        this(edge, DEFAULT_VARIANCE, fraction);
+    }
+
+    /**
+     * Retourne la fraction du capital à miser pour un avantage donné.
+     *
+     * @param edge l'avantage du joueur, par unité misée
+     * @return la fraction du capital, 0 si l'avantage n'est pas positif
+     */
+    public double fraction(double edge) {
+        return edge > 0 ? edge * this.scale : 0;
+    }
+
+    @Override
+    public int bet(int pot, int betMin, int betMax) {
+        double stake = this.fraction(this.edge.getAsDouble()) * pot;
+        return Betting.clamp(stake < Long.MAX_VALUE ? (long) stake : Long.MAX_VALUE, pot, betMin, betMax);
+    }
+}
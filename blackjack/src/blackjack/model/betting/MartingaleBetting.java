@@ -0,0 +1,40 @@
+package blackjack.model.betting;
+
+/**
+ * Martingale : la mise double après chaque manche perdue et revient à la mise minimale après
+ * une manche gagnée. Elle reste inchangée après une manche sans gain ni perte.
+ *
+ * Le résultat de chaque manche est transmis par la table au règlement ({@link #result(int, int)}) :
+ * la progression ne dépend pas du capital, que les simulations peuvent rétablir entre deux
+ * manches. Après une main doublée et perdue, la mise suivante est le double de la mise réglée.
+ * La progression est bornée par la mise maximale et par le capital, ce qui est précisément ce
+ * qui la rend perdante à long terme.
+ */
+public final class MartingaleBetting implements BettingStrategy {
+
+    /**
+     * Mise souhaitée pour la prochaine manche, avant bornage (0 pour la mise minimale).
+     */
+    private long next;
+
+    @Override
+    public int bet(int pot, int betMin, int betMax) {
+        return Betting.clamp(this.next, pot, betMin, betMax);
+    }
+
+    @Override
+    public void result(int bet, int net) {
+        if (net > 0) {
+            this.next = 0;
+        } else if (net < 0) {
+            this.next = 2L * bet;
+        }
+    }
+
+    /**
+     * Oublie la progression en cours : la prochaine mise sera la mise minimale.
+     */
+    public void reset() {
+        this.next = 0;
+    }
+}
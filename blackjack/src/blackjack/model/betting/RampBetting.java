@@ -0,0 +1,45 @@
+package blackjack.model.betting;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Rampe de mise d'un compteur de cartes : une unité (la mise minimale) par point de compte vrai,
+ * au moins une, dans la limite d'un nombre maximal d'unités.
+ *
+ * Le compte est lu à chaque mise auprès de la source donnée à la construction, par exemple
+ * {@code bot::getTrueCount} pour un {@link blackjack.model.player.CountingBot}.
+ */
+public final class RampBetting implements BettingStrategy {
+
+    /**
+     * Source du compte vrai courant.
+     */
+    private final DoubleSupplier trueCount;
+
+    /**
+     * Nombre maximal d'unités misées.
+     */
+    private final int maxUnits;
+
+    /**
+     * Construit une rampe de mise.
+     *
+     * @param trueCount la source du compte vrai courant
+     * @param maxUnits le nombre maximal d'unités misées, au moins 1
+     * @throws IllegalArgumentException si maxUnits est inférieur à 1
+     */
+    public RampBetting(DoubleSupplier trueCount, int maxUnits) {
+        if (maxUnits < 1) {
+            throw new IllegalArgumentException("maxUnits doit être au moins 1 : " + maxUnits);
+        }
+        this.trueCount = trueCount;
+        this.maxUnits = maxUnits;
+    }
+
+    @Override
+    public int bet(int pot, int betMin, int betMax) {
+        double count = this.trueCount.getAsDouble();
+        long units = count >= this.maxUnits ? this.maxUnits : Math.max(1, (long) Math.floor(count));
+        return Betting.clamp(units * betMin, pot, betMin, betMax);
+    }
+}
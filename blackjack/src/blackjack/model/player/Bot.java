@@ -41,12 +41,9 @@ public class Bot extends Player{
      */
     @Override
     public boolean continueChoice(){
-        System.out.println("le bot continu ? ");
         if(super.getHandValue() < 20){
-            System.out.println("OUI");
             return true;
         }
-        System.out.println("NON");
         return false;
     }  
 
@@ -0,0 +1,155 @@
+package blackjack.model.player;
+
+import blackjack.model.betting.RampBetting;
+import blackjack.model.strategy.BasicStrategy;
+import blackjack.model.strategy.Rules;
+import blackjack.util.ObservateurCartes;
+import card.game.Card;
+import card.game.RankCounts;
+
+/**
+ * Représente un bot qui compte les cartes avec la méthode Hi-Lo.
+ *
+ * Le bot observe chaque carte rendue visible à la table (voir {@link ObservateurCartes}) et tient
+ * à jour le compte courant : +1 pour un 2 à 6, 0 pour un 7 à 9, -1 pour un 10 à As. Le compte
+ * vrai est le compte courant divisé par le nombre de jeux restant à distribuer. Par défaut, le
+ * bot mise une unité par point de compte vrai ({@link RampBetting}) ; une autre stratégie de mise
+ * peut lui être donnée, par exemple une mise de Kelly fondée sur le compte. Il joue les tables de
+ * {@link BasicStrategy} calculées pour le compte vrai courant (arrondi à l'entier inférieur),
+ * qui contiennent les écarts à la stratégie de base selon le compte.
+ *
+ * Le bot doit être placé à une table qui le prévient des cartes : c'est automatique pour les
+ * joueurs passés au constructeur de {@link blackjack.model.Table}.
+ */
+public class CountingBot extends StrategyBot implements ObservateurCartes {
+
+    /**
+     * Nombre de jeux de 52 cartes du sabot de la table.
+     */
+    private final int numberOfDecks;
+
+    /**
+     * Compte courant Hi-Lo des cartes vues depuis le dernier mélange.
+     */
+    private int runningCount;
+
+    /**
+     * Nombre de cartes vues depuis le dernier mélange.
+     */
+    private int cardsSeen;
+
+    /**
+     * Stratégies par compte vrai, récupérées une fois pour toutes.
+     */
+    private final BasicStrategy[] strategies = new BasicStrategy[2 * BasicStrategy.MAX_TRUE_COUNT + 1];
+
+    /**
+     * Construit un bot compteur.
+     *
+     * @param name le nom du bot
+     * @param pot le capital initial du bot
+     * @param rules les règles de la table
+     * @param numberOfDecks le nombre de jeux du sabot de la table
+     */
+    public CountingBot(String name, int pot, Rules rules, int numberOfDecks){
+        super(name, pot, rules);
+        this.numberOfDecks = numberOfDecks;
+        this.setBettingStrategy(new RampBetting(this::getTrueCount, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Construit un bot compteur pour les règles de la table.
+     *
+     * @param name le nom du bot
+     * @param pot le capital initial du bot
+     * @param numberOfDecks le nombre de jeux du sabot de la table
+     */
+    public CountingBot(String name, int pot, int numberOfDecks){
+        this(name, pot, Rules.TABLE, numberOfDecks);
+    }
+
+    /**
+     * Retourne le compte courant Hi-Lo.
+     *
+     * @return le compte courant depuis le dernier mélange
+     */
+    public int getRunningCount(){
+        return this.runningCount;
+    }
+
+    /**
+     * Retourne le compte vrai : compte courant par jeu restant à distribuer
+     * (au moins un demi-jeu, pour ne pas s'emballer en fin de sabot).
+     *
+     * @return le compte vrai
+     */
+    public double getTrueCount(){
+        int remaining = Math.max(this.numberOfDecks * Card.CARD_COUNT - this.cardsSeen, Card.CARD_COUNT / 2);
+        return this.runningCount * (double) Card.CARD_COUNT / remaining;
+    }
+
+    /**
+     * Met à jour le compte avec une carte vue.
+     *
+     * @param ordinal l'ordinal de la carte
+     */
+    @Override
+    public void carteVue(int ordinal){
+        this.runningCount += RankCounts.hiLoTag(Card.rankOf(ordinal));
+        this.cardsSeen++;
+    }
+
+    /**
+     * Remet le compte à zéro après un mélange du sabot.
+     */
+    @Override
+    public void sabotMelange(){
+        this.runningCount = 0;
+        this.cardsSeen = 0;
+    }
+
+    /**
+     * Détermine si le bot souhaite tirer une carte, selon la stratégie du compte vrai courant.
+     *
+     * @return true si la stratégie conseille de tirer
+     */
+    @Override
+    public boolean continueChoice(){
+        Card upCard = this.getDealerUpCard();
+        if(upCard == null){
+            return super.continueChoice();
+        }
+        Hand hand = this.getHandState();
+        return this.currentStrategy().decide(hand.total(), hand.isSoft(), Card.rankValue(upCard.getRank()), false)
+            == BasicStrategy.Action.HIT;
+    }
+
+    /**
+     * Détermine si le bot souhaite doubler sa mise, selon la stratégie du compte vrai courant.
+     *
+     * @return true si la stratégie conseille de doubler
+     */
+    @Override
+    public boolean doubleDump(){
+        Card upCard = this.getDealerUpCard();
+        if(upCard == null){
+            return super.doubleDump();
+        }
+        return this.currentStrategy().decide(this.getHandState(), upCard) == BasicStrategy.Action.DOUBLE;
+    }
+
+    /**
+     * Retourne la stratégie du compte vrai courant.
+     */
+    private BasicStrategy currentStrategy(){
+        int tc = (int) Math.floor(this.getTrueCount());
+        int index = Math.max(-BasicStrategy.MAX_TRUE_COUNT, Math.min(BasicStrategy.MAX_TRUE_COUNT, tc))
+            + BasicStrategy.MAX_TRUE_COUNT;
+        BasicStrategy strategy = this.strategies[index];
+        if(strategy == null){
+            strategy = BasicStrategy.of(this.getStrategy().getRules(), index - BasicStrategy.MAX_TRUE_COUNT);
+            this.strategies[index] = strategy;
+        }
+        return strategy;
+    }
+}
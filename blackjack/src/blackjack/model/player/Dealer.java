@@ -16,6 +16,11 @@ public class Dealer extends Player{
      * Valeur visible de la main du croupier (excluant la carte cachée).
      */
     private int visibleHandValue = 0;
+
+    /**
+     * État de la partie visible de la main du croupier (toutes les cartes sauf la première).
+     */
+    private final Hand visibleHand = new Hand();
     
     /**
      * Construit un nouveau croupier avec un nom et un capital initial.
@@ -50,6 +55,16 @@ public class Dealer extends Player{
         return cardInHand.toString();
     }
 
+    /**
+     * Retourne la carte visible du croupier après la distribution (sa deuxième carte).
+     * 
+     * @return la carte visible, ou null si le croupier a moins de deux cartes
+     */
+    public Card getUpCard(){
+        Deck hand = super.getHand();
+        return hand.size() < 2 ? null : hand.getCardToIndex(1);
+    }
+
     /**
      * Retourne la valeur visible de la main du croupier (excluant la carte cachée).
      * 
@@ -77,9 +92,20 @@ public class Dealer extends Player{
     @Override
     public void setHandValue(int x){
         this.visibleHandValue = 0;
+        this.visibleHand.clear();
         super.setHandValue(x);
     }
 
+    /**
+     * Vide la main du croupier, y compris sa partie visible.
+     */
+    @Override
+    public void clearHand(){
+        super.clearHand();
+        this.visibleHand.clear();
+        this.visibleHandValue = 0;
+    }
+
     /**
      * Détermine si le croupier doit continuer à tirer des cartes.
      * Règle du blackjack : le croupier tire jusqu'à atteindre au moins 17 points.
@@ -104,13 +130,9 @@ public class Dealer extends Player{
     @Override
     public void addNewCard(Card card){
         super.addNewCard(card);
-        if(super.getHand().getDeck().size() > 1){
-            this.visibleHandValue += card.getValue();
-            if(card.getName()=="As"){
-            this.visibleHandValue += 10;
-            }
+        if(super.getHand().size() > 1){
+            this.visibleHand.add(card);
+            this.visibleHandValue = this.visibleHand.total();
         }
-
-        
     }
 }
\ No newline at end of file
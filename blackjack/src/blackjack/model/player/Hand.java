@@ -0,0 +1,403 @@
+package blackjack.model.player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import card.game.Card;
+import card.game.Zobrist;
+
+/**
+ * Représente l'état d'une main de blackjack : total dur, total souple, paire, blackjack et bust.
+ *
+ * Tous les états possibles sont énumérés une fois pour toutes au chargement de la classe,
+ * avec une table de transitions indexée par (état, rang de la carte). Ajouter une carte
+ * se réduit donc à une lecture de tableau, et toutes les propriétés d'un état sont lues
+ * dans des tableaux précalculés.
+ *
+ * L'As compte pour 11 tant que le total ne dépasse pas 21, et redevient 1 dès qu'une carte
+ * suivante ferait dépasser 21 (un 17 souple qui reçoit un 10 vaut 17 dur). Une paire est
+ * formée de deux cartes de même valeur (deux figures par exemple), un blackjack d'un As
+ * et d'une carte valant 10 reçus en deux cartes.
+ *
+ * Les méthodes statiques travaillent directement sur les numéros d'état, pour les simulations
+ * qui préfèrent manipuler des entiers plutôt que des objets.
+ *
+ * La main tient aussi un hachage de Zobrist des cartes reçues (voir {@link Zobrist}), mis à
+ * jour par un ou exclusif à chaque carte : deux mains formées des mêmes rangs ont le même
+ * hachage, quel que soit l'ordre des cartes.
+ */
+public class Hand{
+    /**
+     * Numéro de l'état de la main vide.
+     */
+    public static final int EMPTY = 0;
+
+    /**
+     * Plus grand total dur représenté ; au-delà, le total est plafonné (la main est de toute façon bust).
+     */
+    private static final int MAX_HARD = 31;
+
+    private static final int SOFT = 1;
+    private static final int PAIR = 2;
+    private static final int BLACKJACK = 4;
+    private static final int BUST = 8;
+
+    /**
+     * Transitions : NEXT[état * RANK_COUNT + rang] donne l'état après ajout d'une carte du rang.
+     */
+    private static final int[] NEXT;
+
+    /**
+     * Meilleur total de chaque état.
+     */
+    private static final byte[] TOTAL;
+
+    /**
+     * Total dur (As comptés pour 1) de chaque état.
+     */
+    private static final byte[] HARD;
+
+    /**
+     * Nombre de cartes de chaque état, plafonné à 3.
+     */
+    private static final byte[] COUNT;
+
+    /**
+     * Indicateurs (souple, paire, blackjack, bust) de chaque état.
+     */
+    private static final byte[] FLAGS;
+
+    /**
+     * État à plusieurs cartes correspondant à chaque total dur, pour {@link #setHardTotal(int)}.
+     */
+    private static final int[] HARD_STATES = new int[MAX_HARD + 1];
+
+    static{
+        // un état est décrit par (nombre de cartes plafonné à 3, total dur, présence d'un As, valeur de la paire)
+        Map<Integer, Integer> index = new HashMap<>();
+        List<int[]> states = new ArrayList<>();
+        intern(index, states, 0, 0, false, 0);
+        for(int hard = 1; hard <= MAX_HARD; hard++){
+            HARD_STATES[hard] = intern(index, states, 3, hard, false, 0);
+        }
+        List<Integer> next = new ArrayList<>();
+        for(int s = 0; s < states.size(); s++){
+            int[] st = states.get(s);
+            for(int rank = 0; rank < Card.RANK_COUNT; rank++){
+                int value = Card.rankValue(rank);
+                int count = Math.min(st[0] + 1, 3);
+                int hard = Math.min(st[1] + value, MAX_HARD);
+                boolean ace = st[2] == 1 || value == 1;
+                int pair = st[0] == 1 && st[1] == value ? value : 0;
+                next.add(intern(index, states, count, hard, ace, pair));
+            }
+        }
+        int n = states.size();
+        NEXT = new int[n * Card.RANK_COUNT];
+        for(int i = 0; i < NEXT.length; i++){
+            NEXT[i] = next.get(i);
+        }
+        TOTAL = new byte[n];
+        HARD = new byte[n];
+        COUNT = new byte[n];
+        FLAGS = new byte[n];
+        for(int s = 0; s < n; s++){
+            int[] st = states.get(s);
+            int hard = st[1];
+            boolean soft = st[2] == 1 && hard <= 11;
+            int flags = 0;
+            if(soft){
+                flags |= SOFT;
+            }
+            if(st[3] != 0){
+                flags |= PAIR;
+            }
+            if(st[0] == 2 && soft && hard == 11){
+                flags |= BLACKJACK;
+            }
+            if(hard > 21){
+                flags |= BUST;
+            }
+            TOTAL[s] = (byte) (soft ? hard + 10 : hard);
+            HARD[s] = (byte) hard;
+            COUNT[s] = (byte) st[0];
+            FLAGS[s] = (byte) flags;
+        }
+    }
+
+    /**
+     * Numéro de l'état courant de la main.
+     */
+    private int state = EMPTY;
+
+    /**
+     * Nombre de cartes de chaque rang reçues.
+     */
+    private final int[] rankCounts = new int[Card.RANK_COUNT];
+
+    /**
+     * Hachage de Zobrist des cartes reçues.
+     */
+    private long zobristHash;
+
+    /**
+     * Crée une main vide.
+     */
+    public Hand(){
+    }
+
+    /**
+     * Ajoute une carte à la main.
+     *
+     * @param card la carte reçue
+     */
+    public void add(Card card){
+        this.addRank(card.getRank());
+    }
+
+    /**
+     * Ajoute une carte à la main, à partir de son ordinal.
+     *
+     * @param ordinal l'ordinal de la carte reçue
+     */
+    public void addOrdinal(int ordinal){
+        this.addRank(Card.rankOf(ordinal));
+    }
+
+    private void addRank(int rank){
+        this.state = NEXT[this.state * Card.RANK_COUNT + rank];
+        this.zobristHash ^= Zobrist.handStep(rank, ++this.rankCounts[rank]);
+    }
+
+    /**
+     * Vide la main.
+     */
+    public void clear(){
+        this.state = EMPTY;
+        Arrays.fill(this.rankCounts, 0);
+        this.zobristHash = 0;
+    }
+
+    /**
+     * Remplace la main par une main de plusieurs cartes ayant le total dur donné,
+     * sans As, paire ni blackjack. Les cartes de cette main n'étant pas connues, son
+     * hachage ne dépend que du total.
+     *
+     * @param hard le total dur, entre 0 et 31 (0 vide la main)
+     * @throws IllegalArgumentException si le total est hors limites
+     */
+    public void setHardTotal(int hard){
+        if(hard < 0 || hard > MAX_HARD){
+            throw new IllegalArgumentException("Total hors limites : " + hard);
+        }
+        this.state = hard == 0 ? EMPTY : HARD_STATES[hard];
+        Arrays.fill(this.rankCounts, 0);
+        this.zobristHash = hard == 0 ? 0 : Zobrist.mix(hard);
+    }
+
+    /**
+     * Retourne le numéro de l'état courant, utilisable avec les méthodes statiques.
+     *
+     * @return le numéro d'état
+     */
+    public int getState(){
+        return this.state;
+    }
+
+    /**
+     * Retourne le hachage de Zobrist des cartes de la main ; la main vide a le hachage 0.
+     *
+     * @return le hachage de 64 bits
+     */
+    public long zobristHash(){
+        return this.zobristHash;
+    }
+
+    /**
+     * Retourne le meilleur total de la main.
+     *
+     * @return le total, un As comptant pour 11 s'il ne fait pas dépasser 21
+     */
+    public int total(){
+        return TOTAL[this.state];
+    }
+
+    /**
+     * Retourne le total dur de la main.
+     *
+     * @return le total, chaque As comptant pour 1
+     */
+    public int hardTotal(){
+        return HARD[this.state];
+    }
+
+    /**
+     * Indique si le total de la main est souple (un As compté pour 11).
+     *
+     * @return true si le total est souple
+     */
+    public boolean isSoft(){
+        return (FLAGS[this.state] & SOFT) != 0;
+    }
+
+    /**
+     * Indique si la main est une paire (deux cartes de même valeur).
+     *
+     * @return true si la main est une paire
+     */
+    public boolean isPair(){
+        return (FLAGS[this.state] & PAIR) != 0;
+    }
+
+    /**
+     * Indique si la main est un blackjack (As et carte valant 10 en deux cartes).
+     *
+     * @return true si la main est un blackjack
+     */
+    public boolean isBlackjack(){
+        return (FLAGS[this.state] & BLACKJACK) != 0;
+    }
+
+    /**
+     * Indique si la main a dépassé 21.
+     *
+     * @return true si la main est bust
+     */
+    public boolean isBust(){
+        return (FLAGS[this.state] & BUST) != 0;
+    }
+
+    /**
+     * Retourne le nombre de cartes de la main, plafonné à 3.
+     *
+     * @return 0, 1, 2, ou 3 pour trois cartes ou plus
+     */
+    public int cardCount(){
+        return COUNT[this.state];
+    }
+
+    /**
+     * Retourne l'état obtenu en ajoutant une carte d'un rang à un état.
+     *
+     * @param state le numéro d'état
+     * @param rank le numéro de rang de la carte (0 = "2", ..., 12 = "As")
+     * @return le numéro du nouvel état
+     */
+    public static int next(int state, int rank){
+        return NEXT[state * Card.RANK_COUNT + rank];
+    }
+
+    /**
+     * Retourne le meilleur total d'un état.
+     *
+     * @param state le numéro d'état
+     * @return le total
+     */
+    public static int totalOf(int state){
+        return TOTAL[state];
+    }
+
+    /**
+     * Retourne le total dur d'un état.
+     *
+     * @param state le numéro d'état
+     * @return le total dur
+     */
+    public static int hardTotalOf(int state){
+        return HARD[state];
+    }
+
+    /**
+     * Retourne le nombre de cartes d'un état, plafonné à 3.
+     *
+     * @param state le numéro d'état
+     * @return le nombre de cartes
+     */
+    public static int cardCountOf(int state){
+        return COUNT[state];
+    }
+
+    /**
+     * Indique si le total d'un état est souple.
+     *
+     * @param state le numéro d'état
+     * @return true si le total est souple
+     */
+    public static boolean isSoft(int state){
+        return (FLAGS[state] & SOFT) != 0;
+    }
+
+    /**
+     * Indique si un état est une paire.
+     *
+     * @param state le numéro d'état
+     * @return true si l'état est une paire
+     */
+    public static boolean isPair(int state){
+        return (FLAGS[state] & PAIR) != 0;
+    }
+
+    /**
+     * Indique si un état est un blackjack.
+     *
+     * @param state le numéro d'état
+     * @return true si l'état est un blackjack
+     */
+    public static boolean isBlackjack(int state){
+        return (FLAGS[state] & BLACKJACK) != 0;
+    }
+
+    /**
+     * Indique si un état est bust.
+     *
+     * @param state le numéro d'état
+     * @return true si le total dépasse 21
+     */
+    public static boolean isBust(int state){
+        return (FLAGS[state] & BUST) != 0;
+    }
+
+    /**
+     * Retourne le nombre d'états distincts.
+     *
+     * @return le nombre d'états
+     */
+    public static int stateCount(){
+        return FLAGS.length;
+    }
+
+    @Override
+    public String toString(){
+        if(this.isBlackjack()){
+            return "blackjack";
+        }
+        return (this.isSoft() ? "souple " : "") + this.total();
+    }
+
+    /**
+     * Retourne le numéro d'un état, en le créant s'il n'existe pas encore.
+     * Les mains bust sont regroupées par total dur, et la présence d'un As n'est
+     * conservée que tant qu'elle peut encore rendre le total souple.
+     */
+    private static int intern(Map<Integer, Integer> index, List<int[]> states,
+                              int count, int hard, boolean ace, int pair){
+        if(hard > 21){
+            count = 3;
+            pair = 0;
+        }
+        if(hard > 11){
+            ace = false;
+        }
+        int key = ((count * (MAX_HARD + 1) + hard) * 2 + (ace ? 1 : 0)) * 11 + pair;
+        Integer s = index.get(key);
+        if(s == null){
+            s = states.size();
+            index.put(key, s);
+            states.add(new int[] {count, hard, ace ? 1 : 0, pair});
+        }
+        return s;
+    }
+}
@@ -0,0 +1,117 @@
+package blackjack.model.player;
+
+import blackjack.model.strategy.BasicStrategy;
+import blackjack.model.strategy.ExpectedValueSolver;
+import blackjack.model.strategy.Rules;
+import card.game.Card;
+import card.game.Deck;
+import card.game.Shoe;
+
+/**
+ * Représente un bot qui joue la meilleure décision pour la composition exacte des cartes non vues.
+ * À chaque décision, il évalue l'espérance de rester, tirer et doubler avec un
+ * {@link ExpectedValueSolver} et choisit la plus élevée.
+ *
+ * Les cartes non vues sont celles du sabot et la carte cachée du croupier : c'est ce que
+ * saurait un joueur ayant retenu toutes les cartes sorties depuis le dernier mélange. Tant que
+ * la carte visible du croupier est inconnue, il joue comme un {@link Bot}.
+ *
+ * Les espérances sont exactes pour un bot seul face au croupier, avec les règles de la table.
+ * À une table de plusieurs joueurs, le 21 d'une autre place change le règlement de ses mains
+ * (voir {@link Rules#TABLE}) : ses décisions restent alors celles du jeu à un seul joueur.
+ */
+public class OptimalBot extends Bot {
+
+    /**
+     * Solveur propre au bot (ses caches ne sont pas partagés entre threads).
+     */
+    private final ExpectedValueSolver solver;
+
+    /**
+     * Sabot de la table et croupier, pour connaître les cartes non vues.
+     */
+    private final Shoe shoe;
+    private final Dealer dealer;
+
+    /**
+     * Nombre de cartes non vues de chaque valeur (indices 1 à 10), recalculé à chaque décision.
+     */
+    private final int[] unseen = new int[11];
+
+    /**
+     * Construit un bot optimal.
+     *
+     * @param name le nom du bot
+     * @param pot le capital initial du bot
+     * @param rules les règles de la table
+     * @param shoe le sabot de la table
+     * @param dealer le croupier de la table
+     */
+    public OptimalBot(String name, int pot, Rules rules, Shoe shoe, Dealer dealer){
+        super(name, pot);
+        this.solver = new ExpectedValueSolver(rules);
+        this.shoe = shoe;
+        this.dealer = dealer;
+    }
+
+    /**
+     * Construit un bot optimal pour les règles de la table.
+     *
+     * @param name le nom du bot
+     * @param pot le capital initial du bot
+     * @param shoe le sabot de la table
+     * @param dealer le croupier de la table
+     */
+    public OptimalBot(String name, int pot, Shoe shoe, Dealer dealer){
+        this(name, pot, Rules.TABLE, shoe, dealer);
+    }
+
+    /**
+     * Évalue les décisions possibles pour la main courante.
+     *
+     * @return les espérances de chaque décision, ou null si la carte visible du croupier est inconnue
+     */
+    public ExpectedValueSolver.Evaluation evaluate(){
+        Card upCard = this.getDealerUpCard();
+        if(upCard == null){
+            return null;
+        }
+        for(int value = 1; value <= 10; value++){
+            this.unseen[value] = this.shoe.valueCount(value);
+        }
+        Deck dealerHand = this.dealer.getHand();
+        if(dealerHand.size() > 0){
+            this.unseen[Card.rankValue(dealerHand.getCardToIndex(0).getRank())]++;
+        }
+        return this.solver.evaluate(this.getHandState().getState(), Card.rankValue(upCard.getRank()), this.unseen);
+    }
+
+    /**
+     * Détermine si le bot souhaite tirer une carte : tirer a une meilleure espérance que rester.
+     *
+     * @return true si tirer est la meilleure décision
+     */
+    @Override
+    public boolean continueChoice(){
+        ExpectedValueSolver.Evaluation evaluation = this.evaluate();
+        if(evaluation == null){
+            return super.continueChoice();
+        }
+        return evaluation.best(false) == BasicStrategy.Action.HIT;
+    }
+
+    /**
+     * Détermine si le bot souhaite doubler sa mise : doubler a la meilleure espérance
+     * sur ses deux premières cartes.
+     *
+     * @return true si doubler est la meilleure décision
+     */
+    @Override
+    public boolean doubleDump(){
+        ExpectedValueSolver.Evaluation evaluation = this.evaluate();
+        if(evaluation == null){
+            return super.doubleDump();
+        }
+        return this.getHandState().cardCount() == 2 && evaluation.best(true) == BasicStrategy.Action.DOUBLE;
+    }
+}
@@ -1,9 +1,10 @@
 package blackjack.model.player;
 
+import blackjack.model.betting.BettingStrategy;
 import card.game.*;
 import card.util.FactoryCard;
+import card.util.RandomSource;
 import java.util.Scanner;
-import java.util.Random;
 
 /**
  * Classe abstraite représentant un joueur de blackjack.
@@ -28,9 +29,24 @@ public abstract class Player{
     public Deck hand = FactoryCard.create0Deck();
     
     /**
-     * Valeur totale de la main du joueur.
+     * État de la main du joueur (total, As souple, paire, blackjack, bust).
      */
-    private int handValue = 0; 
+    private final Hand handState = new Hand();
+
+    /**
+     * Carte visible du croupier pour la manche en cours, null avant la distribution.
+     */
+    private Card dealerUpCard;
+
+    /**
+     * Source de hasard utilisée pour les décisions aléatoires (mise, doublement).
+     */
+    private RandomSource random = RandomSource.threadLocal();
+
+    /**
+     * Stratégie de mise du joueur, null pour une mise aléatoire.
+     */
+    private BettingStrategy bettingStrategy;
 
     /**
      * Construit un nouveau joueur avec un nom et un capital initial.
@@ -85,39 +101,104 @@ public abstract class Player{
      * @return la valeur de la main
      */
     public int getHandValue(){
-        return this.handValue;
+        return this.handState.total();
+    }
+
+    /**
+     * Retourne l'état de la main du joueur.
+     * 
+     * @return l'état de la main (total, As souple, paire, blackjack, bust)
+     */
+    public Hand getHandState(){
+        return this.handState;
     }
 
     /**
      * Modifie la valeur de la main du joueur.
+     * La main est alors considérée comme un total dur, sans As ni paire ; 0 la réinitialise.
      * 
      * @param value la nouvelle valeur de la main
      */
     public void setHandValue(int value){
-        this.handValue = value;
+        this.handState.setHardTotal(value);
+    }
+
+    /**
+     * Retourne la carte visible du croupier pour la manche en cours.
+     * 
+     * @return la carte visible du croupier, ou null si les cartes n'ont pas été distribuées
+     */
+    public Card getDealerUpCard(){
+        return this.dealerUpCard;
+    }
+
+    /**
+     * Indique au joueur la carte visible du croupier, une fois la distribution terminée.
+     * Les joueurs qui décident en fonction du croupier peuvent redéfinir cette méthode
+     * pour préparer leurs décisions.
+     * 
+     * @param card la carte visible du croupier
+     */
+    public void setDealerUpCard(Card card){
+        this.dealerUpCard = card;
+    }
+
+    /**
+     * Retourne la source de hasard du joueur.
+     * 
+     * @return la source utilisée pour les décisions aléatoires
+     */
+    public RandomSource getRandom(){
+        return this.random;
+    }
+
+    /**
+     * Modifie la source de hasard du joueur.
+     * Par défaut, le générateur du thread courant est utilisé.
+     * 
+     * @param random la source à utiliser pour les décisions aléatoires
+     */
+    public void setRandom(RandomSource random){
+        this.random = random;
+    }
+
+    /**
+     * Retourne la stratégie de mise du joueur.
+     * 
+     * @return la stratégie de mise, ou null si le joueur mise au hasard
+     */
+    public BettingStrategy getBettingStrategy(){
+        return this.bettingStrategy;
+    }
+
+    /**
+     * Modifie la stratégie de mise du joueur (voir {@link #placeBet(int, int)}).
+     * 
+     * @param bettingStrategy la stratégie de mise, ou null pour miser au hasard
+     */
+    public void setBettingStrategy(BettingStrategy bettingStrategy){
+        this.bettingStrategy = bettingStrategy;
     }
 
     /**
      * Vide la main du joueur en retirant toutes ses cartes.
      */
     public void clearHand(){
-        this.hand.getDeck().clear();
+        this.hand.clear();
+        this.handState.clear();
+        this.dealerUpCard = null;
     }
 
     /**
      * Ajoute une nouvelle carte à la main du joueur et met à jour sa valeur.
-     * Gère automatiquement la valeur des As : si c'est un As et que la valeur
-     * totale reste inférieure ou égale à 11, ajoute 10 points supplémentaires
-     * (pour compter l'As comme 11 au lieu de 1).
+     * Un As compte pour 11 tant que la main ne dépasse pas 21, et repasse à 1 sinon
+     * (voir {@link Hand}).
      * 
      * @param card la carte à ajouter à la main
      */
     public void addNewCard(Card card){
-        this.handValue += card.getValue();
         this.hand.addCard(card);
-        if(card.getName()=="As" && this.handValue<=11){
-            this.handValue += 10;
-        }
+        this.handState.add(card);
     }
 
     /**
@@ -130,16 +211,19 @@ public abstract class Player{
 
     /**
      * Demande au joueur de placer une mise dans les limites autorisées.
-     * Implémentation par défaut : génère une mise aléatoire entre betMin et betMax,
-     * limitée au capital disponible du joueur.
+     * Implémentation par défaut : la mise est confiée à la stratégie de mise du joueur ;
+     * sans stratégie, génère une mise aléatoire entre betMin et betMax.
+     * Dans les deux cas, elle est limitée au capital disponible du joueur.
      * 
      * @param betMin la mise minimale autorisée
      * @param betMax la mise maximale autorisée
      * @return le montant de la mise placée
      */
     public int placeBet(int betMin, int betMax){
-        Random rand = new Random();
-        int betValue = Math.min(this.pot, rand.nextInt(betMax - betMin + 1) + betMin);
+        if(this.bettingStrategy != null){
+            return Math.min(this.pot, this.bettingStrategy.bet(this.pot, betMin, betMax));
+        }
+        int betValue = Math.min(this.pot, this.random.nextInt(betMax - betMin + 1) + betMin);
         return betValue;
     }
 
@@ -151,8 +235,20 @@ public abstract class Player{
      * @return true si le joueur double, false sinon
      */
     public boolean doubleDump(){
-        Random rand = new Random();
-        return rand.nextBoolean();
+        return this.random.nextBoolean();
+    }
+
+    /**
+     * Transmet le règlement de la manche à la stratégie de mise du joueur, s'il en a une.
+     * Appelée par la table une fois la mise gagnée ou perdue.
+     * 
+     * @param bet la mise réglée, doublement compris
+     * @param net le gain net du joueur sur la manche
+     */
+    public void settleBet(int bet, int net){
+        if(this.bettingStrategy != null){
+            this.bettingStrategy.result(bet, net);
+        }
     }
 
     /**
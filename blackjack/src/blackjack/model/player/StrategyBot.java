@@ -0,0 +1,90 @@
+package blackjack.model.player;
+
+import blackjack.model.strategy.BasicStrategy;
+import blackjack.model.strategy.Rules;
+import card.game.Card;
+
+/**
+ * Représente un bot qui joue la stratégie de base du blackjack.
+ * Ses décisions (tirer, rester, doubler) sont lues dans les tables de {@link BasicStrategy},
+ * en fonction du total de sa main, de son caractère souple et de la carte visible du croupier.
+ * Tant que la carte visible du croupier est inconnue, il joue comme un {@link Bot}.
+ */
+public class StrategyBot extends Bot {
+
+    /**
+     * Tables de décision du bot.
+     */
+    private final BasicStrategy strategy;
+
+    /**
+     * Construit un bot jouant la stratégie de base d'un ensemble de règles.
+     *
+     * @param name le nom du bot
+     * @param pot le capital initial du bot
+     * @param rules les règles pour lesquelles la stratégie est calculée
+     */
+    public StrategyBot(String name, int pot, Rules rules){
+        super(name, pot);
+        this.strategy = BasicStrategy.of(rules);
+    }
+
+    /**
+     * Construit un bot jouant la stratégie de base des règles de la table.
+     *
+     * @param name le nom du bot
+     * @param pot le capital initial du bot
+     */
+    public StrategyBot(String name, int pot){
+        this(name, pot, Rules.TABLE);
+    }
+
+    /**
+     * Construit un bot jouant la stratégie de base des règles de la table, avec un capital de 100.
+     *
+     * @param name le nom du bot
+     */
+    public StrategyBot(String name){
+        this(name, 100);
+    }
+
+    /**
+     * Retourne la stratégie suivie par le bot.
+     *
+     * @return la stratégie de base
+     */
+    public BasicStrategy getStrategy(){
+        return this.strategy;
+    }
+
+    /**
+     * Détermine si le bot souhaite tirer une carte : la stratégie de base lui dit de tirer.
+     *
+     * @return true si la stratégie conseille de tirer
+     */
+    @Override
+    public boolean continueChoice(){
+        Card upCard = this.getDealerUpCard();
+        if(upCard == null){
+            return super.continueChoice();
+        }
+        Hand hand = this.getHandState();
+        return this.strategy.decide(hand.total(), hand.isSoft(), Card.rankValue(upCard.getRank()), false)
+            == BasicStrategy.Action.HIT;
+    }
+
+    /**
+     * Détermine si le bot souhaite doubler sa mise : la stratégie de base le conseille
+     * sur ses deux premières cartes.
+     *
+     * @return true si la stratégie conseille de doubler
+     */
+    @Override
+    public boolean doubleDump(){
+        Card upCard = this.getDealerUpCard();
+        if(upCard == null){
+            return super.doubleDump();
+        }
+        return this.strategy.decide(this.getHandState(), upCard) == BasicStrategy.Action.DOUBLE;
+    }
+}
@@ -0,0 +1,323 @@
+package blackjack.model.simulation;
+
+import blackjack.model.Table;
+import blackjack.model.player.Hand;
+import card.game.Card;
+import card.util.RandomSource;
+
+/**
+ * Simulateur par lots qui joue plusieurs manches indépendantes en parallèle, étape par étape.
+ * Chaque manche (une « voie ») oppose un joueur jouant comme {@link blackjack.model.player.Bot}
+ * au croupier. Au lieu d'un objet par joueur et d'un paquet par main, l'état de toutes les voies
+ * est rangé dans des tableaux de types primitifs (états de main, mises, résultats, sabots), et
+ * chaque étape (distribution, doublement, tirages, jeu du croupier, règlement) est une boucle
+ * sur ces tableaux.
+ *
+ * Les règles sont celles de {@link Table#findWinners()} et {@link Table#dealCoins()} : la
+ * décision de chaque voie passe par {@link Table#isWinner(int, int, boolean)}.
+ *
+ * Chaque voie a son propre sabot, comme une table à un seul joueur : les voies sont réellement
+ * indépendantes. Les sabots sont des tranches d'un même tableau de rangs ; chaque pioche choisit
+ * uniformément une carte parmi celles qui restent (mélange de Fisher-Yates à la demande), sans
+ * tenir de composition ni de défausse. Ils suivent les règles de {@link card.game.Shoe} : les
+ * cartes jouées reviennent au mélange suivant, déclenché entre deux manches lorsque la carte de
+ * coupe est sortie, ou en cours de manche si le sabot s'épuise (seules les cartes déjà rangées
+ * sont alors remélangées).
+ */
+public class BatchSimulator {
+    /**
+     * Nombre de voies par défaut.
+     */
+    public static final int DEFAULT_LANES = 64;
+
+    /**
+     * Nombre de cartes d'un sabot.
+     */
+    private final int shoeSize;
+
+    /**
+     * Sabots de toutes les voies, bout à bout : rangs des cartes, les cartes sorties depuis
+     * le dernier mélange occupant le début de chaque tranche.
+     */
+    private final int[] shoes;
+
+    /**
+     * Nombre de cartes sorties du sabot de chaque voie depuis son dernier mélange.
+     */
+    private final int[] positions;
+
+    /**
+     * Position dans son sabot de la première carte de la manche en cours de chaque voie.
+     */
+    private final int[] roundStarts;
+
+    /**
+     * Nombre de cartes sorties au moment où la carte de coupe apparaît.
+     */
+    private final int cutCard;
+
+    /**
+     * Nombre de mélanges effectués, toutes voies confondues.
+     */
+    private long shuffles;
+
+    private final int betMin;
+    private final int betMax;
+    private final RandomSource random;
+
+    /**
+     * Nombre de voies jouées à chaque lot.
+     */
+    private final int lanes;
+
+    /**
+     * États de main (voir {@link Hand}) des joueurs et du croupier de chaque voie.
+     */
+    private final int[] playerStates;
+    private final int[] dealerStates;
+
+    /**
+     * Mise et gain net de chaque voie.
+     */
+    private final int[] bets;
+    private final int[] nets;
+
+    /**
+     * Indique si la voie a reçu un blackjack à la distribution, ou si elle est réglée d'office
+     * (un 21 à la distribution arrête la manche, comme dans {@link blackjack.model.RoundEngine}).
+     */
+    private final boolean[] naturals;
+    private final boolean[] settled;
+
+    /**
+     * Indique si le joueur de la voie a doublé sa mise (il ne tire alors plus de carte).
+     */
+    private final boolean[] doubled;
+
+    /**
+     * Voies encore actives dans la boucle de tirage en cours.
+     */
+    private final int[] active;
+
+    /**
+     * Construit un simulateur par lots avec le nombre de voies par défaut.
+     *
+     * @param numberOfDecks le nombre de jeux de 52 cartes de chaque sabot
+     * @param penetration la proportion du sabot distribuée avant de remélanger (entre 0 exclu et 1 inclus)
+     * @param betMin la mise minimale
+     * @param betMax la mise maximale
+     * @param random la source de hasard des mélanges et des mises
+     */
+    public BatchSimulator(int numberOfDecks, double penetration, int betMin, int betMax, RandomSource random) {
+        this(numberOfDecks, penetration, betMin, betMax, random, DEFAULT_LANES);
+    }
+
+    /**
+     * Construit un simulateur par lots.
+     *
+     * @param numberOfDecks le nombre de jeux de 52 cartes de chaque sabot
+     * @param penetration la proportion du sabot distribuée avant de remélanger (entre 0 exclu et 1 inclus)
+     * @param betMin la mise minimale
+     * @param betMax la mise maximale
+     * @param random la source de hasard des mélanges et des mises
+     * @param lanes le nombre de voies par lot
+     * @throws IllegalArgumentException si la pénétration est hors limites
+     */
+    public BatchSimulator(int numberOfDecks, double penetration, int betMin, int betMax,
+                          RandomSource random, int lanes) {
+        if (!(penetration > 0 && penetration <= 1)) {
+            throw new IllegalArgumentException("La pénétration doit être comprise entre 0 et 1 : " + penetration);
+        }
+        this.shoeSize = numberOfDecks * Card.CARD_COUNT;
+        this.shoes = new int[lanes * this.shoeSize];
+        for (int i = 0; i < this.shoes.length; i++) {
+            this.shoes[i] = Card.rankOf(i % Card.CARD_COUNT);
+        }
+        this.positions = new int[lanes];
+        this.roundStarts = new int[lanes];
+        this.cutCard = (int) Math.round(this.shoeSize * penetration);
+        this.betMin = betMin;
+        this.betMax = betMax;
+        this.random = random;
+        this.lanes = lanes;
+        this.playerStates = new int[lanes];
+        this.dealerStates = new int[lanes];
+        this.bets = new int[lanes];
+        this.nets = new int[lanes];
+        this.naturals = new boolean[lanes];
+        this.settled = new boolean[lanes];
+        this.doubled = new boolean[lanes];
+        this.active = new int[lanes];
+    }
+
+    /**
+     * Retourne le nombre de voies jouées à chaque lot.
+     *
+     * @return le nombre de voies
+     */
+    public int getLanes() {
+        return this.lanes;
+    }
+
+    /**
+     * Retourne le nombre de mélanges effectués, toutes voies confondues.
+     *
+     * @return le nombre de mélanges
+     */
+    public long getShuffles() {
+        return this.shuffles;
+    }
+
+    /**
+     * Joue un nombre donné de manches, par lots.
+     *
+     * @param rounds le nombre de manches
+     * @return les statistiques des joueurs
+     */
+    public SimulationStats run(long rounds) {
+        SimulationStats stats = new SimulationStats();
+        for (long done = 0; done < rounds; done += this.lanes) {
+            playBatch((int) Math.min(this.lanes, rounds - done), stats);
+        }
+        return stats;
+    }
+
+    /**
+     * Joue une manche sur chacune des n premières voies et ajoute leurs résultats aux statistiques.
+     *
+     * @param n le nombre de voies à jouer (au plus {@link #getLanes()})
+     * @param stats les statistiques à compléter
+     */
+    public void playBatch(int n, SimulationStats stats) {
+        int[] player = this.playerStates;
+        int[] dealer = this.dealerStates;
+
+        // mélange des sabots dont la carte de coupe est sortie, puis mises
+        int range = this.betMax - this.betMin + 1;
+        for (int i = 0; i < n; i++) {
+            if (this.positions[i] >= this.cutCard) {
+                this.positions[i] = 0;
+                this.shuffles++;
+            }
+            this.roundStarts[i] = this.positions[i];
+            this.bets[i] = this.random.nextInt(range) + this.betMin;
+        }
+
+        // distribution : croupier, joueur, croupier, joueur
+        for (int i = 0; i < n; i++) {
+            int d = Hand.next(Hand.EMPTY, draw(i));
+            int p = Hand.next(Hand.EMPTY, draw(i));
+            dealer[i] = Hand.next(d, draw(i));
+            player[i] = Hand.next(p, draw(i));
+            this.naturals[i] = Hand.isBlackjack(player[i]);
+            this.settled[i] = Hand.totalOf(player[i]) == 21 || Hand.totalOf(dealer[i]) == 21;
+        }
+
+        // doublement à 11, sinon tirage tant que la main vaut moins de 20
+        int hitters = 0;
+        for (int i = 0; i < n; i++) {
+            boolean playing = !this.settled[i];
+            this.doubled[i] = playing && Hand.totalOf(player[i]) == 11;
+            if (this.doubled[i]) {
+                player[i] = Hand.next(player[i], draw(i));
+                this.bets[i] *= 2;
+            } else if (playing && Hand.totalOf(player[i]) < 20) {
+                this.active[hitters++] = i;
+            }
+        }
+        drawWhileBelow(player, hitters, 20);
+
+        // jeu du croupier : tirage tant que sa main vaut moins de 17
+        int dealing = 0;
+        for (int i = 0; i < n; i++) {
+            if (!this.settled[i] && Hand.totalOf(dealer[i]) < 17) {
+                this.active[dealing++] = i;
+            }
+        }
+        drawWhileBelow(dealer, dealing, 17);
+
+        // règlement
+        for (int i = 0; i < n; i++) {
+            int p = Hand.totalOf(player[i]);
+            int d = Hand.totalOf(dealer[i]);
+            boolean win = Table.isWinner(p, d, p == 21 || d == 21);
+            this.nets[i] = win ? this.bets[i] : -this.bets[i];
+        }
+        for (int i = 0; i < n; i++) {
+            stats.recordHand(this.bets[i], this.nets[i], this.naturals[i]);
+            stats.recordRound();
+        }
+    }
+
+    /**
+     * Fait tirer une carte à chacune des voies actives, tant que leur main vaut moins
+     * d'un seuil. Chaque passe donne une carte à chaque voie encore active.
+     *
+     * @param states les états de main concernés (joueurs ou croupier)
+     * @param count le nombre de voies actives au départ, rangées au début de {@link #active}
+     * @param threshold le total à partir duquel une voie s'arrête
+     */
+    private void drawWhileBelow(int[] states, int count, int threshold) {
+        int[] active = this.active;
+        while (count > 0) {
+            int still = 0;
+            for (int k = 0; k < count; k++) {
+                int i = active[k];
+                int s = Hand.next(states[i], draw(i));
+                states[i] = s;
+                active[still] = i;
+                still += Hand.totalOf(s) < threshold ? 1 : 0;
+            }
+            count = still;
+        }
+    }
+
+    /**
+     * Tire une carte du sabot d'une voie : elle est choisie uniformément parmi les cartes
+     * restantes et échangée avec la première d'entre elles.
+     *
+     * @param lane la voie
+     * @return le rang de la carte tirée
+     */
+    private int draw(int lane) {
+        int p = this.positions[lane];
+        if (p == this.shoeSize) {
+            p = reshuffleDiscards(lane);
+        }
+        this.positions[lane] = p + 1;
+        int[] shoes = this.shoes;
+        int first = lane * this.shoeSize + p;
+        int j = first + this.random.nextInt(this.shoeSize - p);
+        int rank = shoes[j];
+        shoes[j] = shoes[first];
+        shoes[first] = rank;
+        return rank;
+    }
+
+    /**
+     * Remélange en cours de manche les cartes jouées lors des manches précédentes d'une voie :
+     * les cartes de la manche en cours, encore en jeu, sont ramenées au début de son sabot et
+     * la pioche reprend parmi les autres.
+     *
+     * @param lane la voie dont le sabot est épuisé
+     * @return la nouvelle position de pioche dans le sabot de la voie
+     * @throws IllegalStateException si la manche à elle seule épuise le sabot
+     */
+    private int reshuffleDiscards(int lane) {
+        int start = this.roundStarts[lane];
+        if (start == 0) {
+            throw new IllegalStateException("Sabot épuisé en une seule manche");
+        }
+        int[] shoes = this.shoes;
+        int base = lane * this.shoeSize;
+        int inPlay = this.shoeSize - start;
+        for (int k = 0; k < inPlay; k++) {
+            int tmp = shoes[base + k];
+            shoes[base + k] = shoes[base + start + k];
+            shoes[base + start + k] = tmp;
+        }
+        this.roundStarts[lane] = 0;
+        this.shuffles++;
+        return inPlay;
+    }
+}
@@ -0,0 +1,186 @@
+package blackjack.model.simulation;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+import blackjack.model.RoundEngine;
+import blackjack.model.Table;
+import blackjack.model.player.Player;
+import card.game.Zobrist;
+import card.util.RandomSource;
+
+/**
+ * Simulateur de Monte Carlo qui répartit un grand nombre de manches sur un {@link ForkJoinPool}.
+ *
+ * Les manches sont découpées en blocs de taille fixe. Chaque bloc est joué sur une table neuve,
+ * fournie par la fabrique, dont la source de hasard est dérivée de la graine maîtresse et du
+ * numéro du bloc uniquement : le résultat ne dépend donc ni du nombre de threads ni de l'ordre
+ * dans lequel les blocs sont exécutés. Les statistiques des blocs sont ensuite fusionnées.
+ *
+ * La fabrique doit construire une table complète (croupier en première position) dont les
+ * joueurs décident seuls, comme pour {@link RoundEngine}.
+ *
+ * Le simulateur suppose un capital illimité : avant chaque manche, le capital de chaque joueur
+ * est ramené à celui que lui a donné la fabrique. Sans cela, un capital épuisé limiterait les
+ * mises à zéro et les manches suivantes seraient comptées comme des mains nulles. Ce capital
+ * doit donc couvrir la mise maximale de la table. Pour étudier l'évolution d'un capital fini,
+ * voir {@link RiskOfRuinSimulator}.
+ */
+public class MonteCarloSimulator {
+    /**
+     * Taille par défaut d'un bloc de manches.
+     */
+    public static final int DEFAULT_CHUNK_ROUNDS = 100_000;
+
+    /**
+     * Fabrique des tables, appelée une fois par bloc.
+     */
+    private final Supplier<Table> tableFactory;
+
+    /**
+     * Graine maîtresse dont dérivent les sources de hasard de tous les blocs.
+     */
+    private final long masterSeed;
+
+    /**
+     * Nombre de manches par bloc.
+     */
+    private int chunkRounds = DEFAULT_CHUNK_ROUNDS;
+
+    /**
+     * Construit un simulateur.
+     *
+     * @param tableFactory la fabrique des tables, appelée une fois par bloc et depuis plusieurs threads
+     * @param masterSeed la graine maîtresse
+     */
+    public MonteCarloSimulator(Supplier<Table> tableFactory, long masterSeed) {
+        this.tableFactory = tableFactory;
+        this.masterSeed = masterSeed;
+    }
+
+    /**
+     * Retourne le nombre de manches par bloc.
+     *
+     * @return la taille d'un bloc
+     */
+    public int getChunkRounds() {
+        return this.chunkRounds;
+    }
+
+    /**
+     * Modifie le nombre de manches par bloc. Le résultat d'une simulation dépend de ce
+     * découpage : il faut le conserver pour rejouer une simulation à l'identique.
+     *
+     * @param chunkRounds la taille d'un bloc, strictement positive
+     * @throws IllegalArgumentException si la taille n'est pas strictement positive
+     */
+    public void setChunkRounds(int chunkRounds) {
+        if (chunkRounds <= 0) {
+            throw new IllegalArgumentException("Taille de bloc invalide : " + chunkRounds);
+        }
+        this.chunkRounds = chunkRounds;
+    }
+
+    /**
+     * Joue des manches sur le pool commun.
+     *
+     * @param rounds le nombre total de manches
+     * @return les statistiques cumulées
+     */
+    public SimulationStats run(long rounds) {
+        return run(rounds, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Joue des manches sur un pool donné.
+     *
+     * @param rounds le nombre total de manches
+     * @param pool le pool qui exécute les blocs
+     * @return les statistiques cumulées
+     */
+    public SimulationStats run(long rounds, ForkJoinPool pool) {
+        long chunks = (rounds + this.chunkRounds - 1) / this.chunkRounds;
+        return pool.invoke(new ChunkRange(rounds, 0, chunks));
+    }
+
+    /**
+     * Joue un bloc de manches sur une table neuve, le capital de chaque joueur étant rétabli
+     * avant chaque manche.
+     *
+     * @param chunk le numéro du bloc
+     * @param rounds le nombre de manches du bloc
+     * @return les statistiques du bloc
+     */
+    SimulationStats runChunk(long chunk, long rounds) {
+        Table table = this.tableFactory.get();
+        table.setRandom(RandomSource.seeded(chunkSeed(this.masterSeed, chunk)));
+        RoundEngine engine = new RoundEngine(table);
+        List<Player> players = table.getPlayers();
+        int seats = players.size();
+        int[] bankrolls = new int[seats];
+        for (int seat = 1; seat < seats; seat++) {
+            bankrolls[seat] = players.get(seat).getPot();
+        }
+        SimulationStats stats = new SimulationStats();
+        for (long r = 0; r < rounds; r++) {
+            for (int seat = 1; seat < seats; seat++) {
+                Player player = players.get(seat);
+                int difference = bankrolls[seat] - player.getPot();
+                if (difference > 0) {
+                    player.winCoins(difference);
+                } else if (difference < 0) {
+                    player.looseCoins(-difference);
+                }
+            }
+            engine.playRound();
+            for (int seat = 1; seat < seats; seat++) {
+                stats.recordHand(engine.getLastBet(seat), engine.getLastNet(seat), engine.wasLastBlackjack(seat));
+            }
+            stats.recordRound();
+        }
+        return stats;
+    }
+
+    /**
+     * Dérive la graine d'un bloc de la graine maîtresse (mélange SplitMix64),
+     * pour que des blocs voisins reçoivent des suites sans rapport entre elles.
+     */
+    static long chunkSeed(long masterSeed, long chunk) {
+        return Zobrist.mix(masterSeed + (chunk + 1) * 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * Tâche jouant un intervalle de blocs, découpée en deux tant qu'il contient plus d'un bloc.
+     */
+    private final class ChunkRange extends RecursiveTask<SimulationStats> {
+        private static final long serialVersionUID = 1L;
+
+        private final long totalRounds;
+        private final long from;
+        private final long to;
+
+        private ChunkRange(long totalRounds, long from, long to) {
+            this.totalRounds = totalRounds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SimulationStats compute() {
+            if (this.to - this.from <= 1) {
+                if (this.to == this.from) {
+                    return new SimulationStats();
+                }
+                long start = this.from * chunkRounds;
+                return runChunk(this.from, Math.min(chunkRounds, this.totalRounds - start));
+            }
+            long middle = (this.from + this.to) >>> 1;
+            ChunkRange left = new ChunkRange(this.totalRounds, this.from, middle);
+            left.fork();
+            SimulationStats right = new ChunkRange(this.totalRounds, middle, this.to).compute();
+            return left.join().merge(right);
+        }
+    }
+}
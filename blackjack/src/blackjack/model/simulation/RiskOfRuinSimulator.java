@@ -0,0 +1,247 @@
+package blackjack.model.simulation;
+
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import blackjack.model.RoundEngine;
+import blackjack.model.Table;
+import blackjack.model.player.Player;
+import card.util.RandomSource;
+
+/**
+ * Simulateur de trajectoires de capital, pour estimer le risque de ruine d'un joueur.
+ *
+ * Chaque trajectoire est jouée sur une table neuve fournie par la fabrique : le joueur suivi est
+ * celui de la place 1, son capital de départ est celui que lui donne la fabrique, et ses gains
+ * et pertes sont réglés par la table comme dans une partie ({@link Player#winCoins(int)},
+ * {@link Player#looseCoins(int)}). La trajectoire s'arrête à la ruine (capital inférieur à la mise
+ * minimale de la table), à l'objectif (capital au moins égal au capital visé) ou au bout du
+ * nombre maximal de manches.
+ *
+ * Les trajectoires sont regroupées en lots exécutés en parallèle sur un {@link ForkJoinPool}.
+ * Une trajectoire ne partage rien avec les autres : sa table, ses joueurs et ses statistiques
+ * lui sont propres, et sa source de hasard ne dépend que de la graine maîtresse et de son
+ * numéro. Les statistiques des lots sont fusionnées par le thread appelant au fur et à mesure
+ * qu'ils se terminent, et peuvent lui être transmises après chaque lot pour suivre la
+ * convergence. Le résultat final ne dépend ni du nombre de threads ni de l'ordre d'exécution.
+ */
+public class RiskOfRuinSimulator {
+    /**
+     * Nombre maximal de manches par trajectoire par défaut.
+     */
+    public static final long DEFAULT_MAX_ROUNDS = 100_000;
+
+    /**
+     * Nombre de points de contrôle par défaut.
+     */
+    public static final int DEFAULT_CHECKPOINTS = 100;
+
+    /**
+     * Nombre de classes par défaut des histogrammes de capital.
+     */
+    public static final int DEFAULT_BINS = 200;
+
+    /**
+     * Nombre de trajectoires par lot par défaut.
+     */
+    public static final int DEFAULT_BATCH_TRAJECTORIES = 64;
+
+    /**
+     * Fabrique des tables, appelée une fois par trajectoire.
+     */
+    private final Supplier<Table> tableFactory;
+
+    /**
+     * Capital visé par les trajectoires.
+     */
+    private final int targetPot;
+
+    /**
+     * Graine maîtresse dont dérivent les sources de hasard de toutes les trajectoires.
+     */
+    private final long masterSeed;
+
+    private long maxRounds = DEFAULT_MAX_ROUNDS;
+    private int checkpoints = DEFAULT_CHECKPOINTS;
+    private int bins = DEFAULT_BINS;
+    private int batchTrajectories = DEFAULT_BATCH_TRAJECTORIES;
+
+    /**
+     * Construit un simulateur.
+     *
+     * @param tableFactory la fabrique des tables, appelée une fois par trajectoire et depuis plusieurs threads
+     * @param targetPot le capital visé, au-delà duquel une trajectoire s'arrête
+     * @param masterSeed la graine maîtresse
+     * @throws IllegalArgumentException si le capital visé n'est pas strictement positif
+     */
+    public RiskOfRuinSimulator(Supplier<Table> tableFactory, int targetPot, long masterSeed) {
+        if (targetPot <= 0) {
+            throw new IllegalArgumentException("Capital visé invalide : " + targetPot);
+        }
+        this.tableFactory = tableFactory;
+        this.targetPot = targetPot;
+        this.masterSeed = masterSeed;
+    }
+
+    /**
+     * Retourne le nombre maximal de manches d'une trajectoire.
+     *
+     * @return le nombre maximal de manches
+     */
+    public long getMaxRounds() {
+        return this.maxRounds;
+    }
+
+    /**
+     * Modifie le nombre maximal de manches d'une trajectoire.
+     *
+     * @param maxRounds le nombre maximal de manches, strictement positif
+     * @throws IllegalArgumentException si le nombre n'est pas strictement positif
+     */
+    public void setMaxRounds(long maxRounds) {
+        if (maxRounds <= 0) {
+            throw new IllegalArgumentException("Nombre de manches invalide : " + maxRounds);
+        }
+        this.maxRounds = maxRounds;
+    }
+
+    /**
+     * Modifie la résolution des statistiques : nombre de points de contrôle répartis sur le
+     * nombre maximal de manches, et nombre de classes des histogrammes de capital.
+     *
+     * @param checkpoints le nombre de points de contrôle, strictement positif
+     * @param bins le nombre de classes, strictement positif
+     * @throws IllegalArgumentException si l'un des nombres n'est pas strictement positif
+     */
+    public void setResolution(int checkpoints, int bins) {
+        if (checkpoints <= 0 || bins <= 0) {
+            throw new IllegalArgumentException("Résolution invalide : " + checkpoints + ", " + bins);
+        }
+        this.checkpoints = checkpoints;
+        this.bins = bins;
+    }
+
+    /**
+     * Modifie le nombre de trajectoires par lot : des lots plus petits donnent des rapports
+     * d'avancement plus fréquents, des lots plus grands moins de fusions.
+     *
+     * @param batchTrajectories le nombre de trajectoires par lot, strictement positif
+     * @throws IllegalArgumentException si le nombre n'est pas strictement positif
+     */
+    public void setBatchTrajectories(int batchTrajectories) {
+        if (batchTrajectories <= 0) {
+            throw new IllegalArgumentException("Taille de lot invalide : " + batchTrajectories);
+        }
+        this.batchTrajectories = batchTrajectories;
+    }
+
+    /**
+     * Retourne des statistiques vides à la forme des trajectoires de ce simulateur.
+     *
+     * @return des statistiques vides
+     */
+    public RuinStats newStats() {
+        long sampleInterval = (this.maxRounds + this.checkpoints - 1) / this.checkpoints;
+        int count = (int) ((this.maxRounds + sampleInterval - 1) / sampleInterval);
+        return new RuinStats(sampleInterval, count, this.targetPot, this.bins);
+    }
+
+    /**
+     * Simule des trajectoires sur le pool commun.
+     *
+     * @param trajectories le nombre de trajectoires
+     * @return les statistiques cumulées
+     */
+    public RuinStats run(long trajectories) {
+        return run(trajectories, ForkJoinPool.commonPool(), null);
+    }
+
+    /**
+     * Simule des trajectoires sur un pool donné, en rendant compte de l'avancement après chaque lot.
+     * Le rapport est fait par le thread appelant, avec les statistiques cumulées jusque-là ; elles
+     * continuent d'évoluer après l'appel ({@link RuinStats#copy()} permet de les conserver).
+     *
+     * @param trajectories le nombre de trajectoires
+     * @param pool le pool qui exécute les lots
+     * @param progress le destinataire des rapports d'avancement, ou null
+     * @return les statistiques cumulées
+     * @throws IllegalStateException si le thread appelant est interrompu
+     */
+    public RuinStats run(long trajectories, ForkJoinPool pool, Consumer<RuinStats> progress) {
+        RuinStats shape = newStats();
+        RuinStats total = shape.emptyCopy();
+        CompletionService<RuinStats> completion = new ExecutorCompletionService<>(pool);
+        long batches = (trajectories + this.batchTrajectories - 1) / this.batchTrajectories;
+        for (long batch = 0; batch < batches; batch++) {
+            long from = batch * this.batchTrajectories;
+            long to = Math.min(trajectories, from + this.batchTrajectories);
+            completion.submit(() -> runBatch(shape.emptyCopy(), from, to));
+        }
+        try {
+            for (long done = 0; done < batches; done++) {
+                total.merge(completion.take().get());
+                if (progress != null) {
+                    progress.accept(total);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrompue", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+        return total;
+    }
+
+    /**
+     * Joue un lot de trajectoires.
+     */
+    private RuinStats runBatch(RuinStats stats, long from, long to) {
+        for (long trajectory = from; trajectory < to; trajectory++) {
+            runTrajectory(stats, trajectory);
+        }
+        return stats;
+    }
+
+    /**
+     * Joue une trajectoire sur une table neuve et l'enregistre dans les statistiques.
+     *
+     * @param stats les statistiques du lot
+     * @param trajectory le numéro de la trajectoire
+     */
+    void runTrajectory(RuinStats stats, long trajectory) {
+        Table table = this.tableFactory.get();
+        table.setRandom(RandomSource.seeded(MonteCarloSimulator.chunkSeed(this.masterSeed, trajectory)));
+        RoundEngine engine = new RoundEngine(table);
+        Player player = table.getPlayers().get(1);
+        int betMin = table.getBetMin();
+        long sampleInterval = stats.getSampleInterval();
+        int pot = player.getPot();
+        stats.recordPot(0, pot);
+        int checkpoint = 1;
+        long rounds = 0;
+        while (pot >= betMin && pot < this.targetPot && rounds < this.maxRounds) {
+            engine.playRound();
+            rounds++;
+            pot = player.getPot();
+            if (rounds == checkpoint * sampleInterval) {
+                stats.recordPot(checkpoint++, pot);
+            }
+        }
+        for (; checkpoint <= stats.getCheckpoints(); checkpoint++) {
+            stats.recordPot(checkpoint, pot);
+        }
+        stats.recordTrajectory(rounds, pot < betMin, pot >= this.targetPot);
+    }
+}
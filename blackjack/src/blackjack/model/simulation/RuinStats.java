@@ -0,0 +1,353 @@
+package blackjack.model.simulation;
+
+/**
+ * Statistiques cumulées de trajectoires de capital, produites par {@link RiskOfRuinSimulator}.
+ *
+ * Chaque trajectoire se termine par la ruine, par l'atteinte de l'objectif, ou sans l'un ni
+ * l'autre au bout du nombre maximal de manches. Le capital de chaque trajectoire est relevé à
+ * des points de contrôle réguliers (toutes les sampleInterval manches, le point 0 étant le
+ * capital de départ) ; après la fin d'une trajectoire, son capital final est repris aux points
+ * suivants. Ces relevés sont comptés dans des histogrammes de capital sur [0, objectif], d'où
+ * sont tirés les percentiles de trajectoire ; les instants de ruine sont comptés par intervalle
+ * entre deux points de contrôle.
+ *
+ * Comme pour {@link SimulationStats}, tous les compteurs sont entiers : la fusion de statistiques
+ * partielles ne dépend pas de l'ordre, et une simulation parallèle est reproductible.
+ */
+public class RuinStats {
+    /**
+     * Nombre de manches entre deux points de contrôle.
+     */
+    private final long sampleInterval;
+
+    /**
+     * Nombre de points de contrôle après le départ.
+     */
+    private final int checkpoints;
+
+    /**
+     * Capital visé ; les histogrammes de capital couvrent [0, targetPot].
+     */
+    private final int targetPot;
+
+    /**
+     * Largeur d'une classe des histogrammes de capital.
+     */
+    private final int binWidth;
+
+    /**
+     * Nombre de trajectoires terminées, ruinées et ayant atteint l'objectif.
+     */
+    private long trajectories;
+    private long ruined;
+    private long reachedTarget;
+
+    /**
+     * Sommes des durées (en manches) des trajectoires ruinées et de toutes les trajectoires.
+     */
+    private long ruinRounds;
+    private long rounds;
+
+    /**
+     * Nombre de ruines par intervalle : l'indice k compte les ruines survenues après le point
+     * de contrôle k et au plus tard au point k + 1.
+     */
+    private final long[] ruinTimes;
+
+    /**
+     * Histogrammes du capital à chaque point de contrôle, tassés point par point.
+     */
+    private final long[] pots;
+
+    /**
+     * Construit des statistiques vides.
+     *
+     * @param sampleInterval le nombre de manches entre deux points de contrôle
+     * @param checkpoints le nombre de points de contrôle après le départ
+     * @param targetPot le capital visé
+     * @param bins le nombre de classes des histogrammes de capital
+     * @throws IllegalArgumentException si l'un des paramètres n'est pas strictement positif
+     */
+    public RuinStats(long sampleInterval, int checkpoints, int targetPot, int bins) {
+        if (sampleInterval <= 0 || checkpoints <= 0 || targetPot <= 0 || bins <= 0) {
+            throw new IllegalArgumentException("Paramètres invalides : " + sampleInterval + ", "
+                    + checkpoints + ", " + targetPot + ", " + bins);
+        }
+        this.sampleInterval = sampleInterval;
+        this.checkpoints = checkpoints;
+        this.targetPot = targetPot;
+        this.binWidth = targetPot / bins + 1;
+        this.ruinTimes = new long[checkpoints];
+        this.pots = new long[(checkpoints + 1) * this.bins()];
+    }
+
+    /**
+     * Construit des statistiques vides de même forme que d'autres.
+     */
+    private RuinStats(RuinStats shape) {
+        this.sampleInterval = shape.sampleInterval;
+        this.checkpoints = shape.checkpoints;
+        this.targetPot = shape.targetPot;
+        this.binWidth = shape.binWidth;
+        this.ruinTimes = new long[shape.ruinTimes.length];
+        this.pots = new long[shape.pots.length];
+    }
+
+    /**
+     * Retourne des statistiques vides de même forme que celles-ci.
+     *
+     * @return des statistiques vides, fusionnables avec celles-ci
+     */
+    public RuinStats emptyCopy() {
+        return new RuinStats(this);
+    }
+
+    /**
+     * Retourne une copie de ces statistiques.
+     *
+     * @return une copie indépendante
+     */
+    public RuinStats copy() {
+        return new RuinStats(this).merge(this);
+    }
+
+    /**
+     * Enregistre le capital d'une trajectoire à un point de contrôle.
+     *
+     * @param checkpoint le numéro du point de contrôle, de 0 (départ) à {@link #getCheckpoints()}
+     * @param pot le capital à ce point
+     */
+    public void recordPot(int checkpoint, int pot) {
+        int bin = Math.max(0, Math.min(pot, this.targetPot)) / this.binWidth;
+        this.pots[checkpoint * this.bins() + bin]++;
+    }
+
+    /**
+     * Enregistre la fin d'une trajectoire. Ses capitaux doivent avoir été enregistrés à tous
+     * les points de contrôle.
+     *
+     * @param rounds le nombre de manches jouées par la trajectoire
+     * @param ruined true si la trajectoire s'est terminée par la ruine
+     * @param reachedTarget true si la trajectoire a atteint l'objectif
+     */
+    public void recordTrajectory(long rounds, boolean ruined, boolean reachedTarget) {
+        this.trajectories++;
+        this.rounds += rounds;
+        if (ruined) {
+            this.ruined++;
+            this.ruinRounds += rounds;
+            this.ruinTimes[(int) Math.min(this.checkpoints - 1, Math.max(0, (rounds - 1) / this.sampleInterval))]++;
+        } else if (reachedTarget) {
+            this.reachedTarget++;
+        }
+    }
+
+    /**
+     * Ajoute à ces statistiques celles d'autres trajectoires.
+     *
+     * @param other les statistiques à ajouter, de même forme
+     * @return ces statistiques, pour enchaîner les fusions
+     * @throws IllegalArgumentException si les deux statistiques n'ont pas la même forme
+     */
+    public RuinStats merge(RuinStats other) {
+        if (other.sampleInterval != this.sampleInterval || other.pots.length != this.pots.length
+                || other.targetPot != this.targetPot || other.binWidth != this.binWidth) {
+            throw new IllegalArgumentException("Statistiques de formes différentes");
+        }
+        this.trajectories += other.trajectories;
+        this.ruined += other.ruined;
+        this.reachedTarget += other.reachedTarget;
+        this.ruinRounds += other.ruinRounds;
+        this.rounds += other.rounds;
+        for (int i = 0; i < this.ruinTimes.length; i++) {
+            this.ruinTimes[i] += other.ruinTimes[i];
+        }
+        for (int i = 0; i < this.pots.length; i++) {
+            this.pots[i] += other.pots[i];
+        }
+        return this;
+    }
+
+    /**
+     * Retourne le nombre de manches entre deux points de contrôle.
+     *
+     * @return l'intervalle entre deux points de contrôle
+     */
+    public long getSampleInterval() {
+        return this.sampleInterval;
+    }
+
+    /**
+     * Retourne le nombre de points de contrôle après le départ.
+     *
+     * @return le nombre de points de contrôle
+     */
+    public int getCheckpoints() {
+        return this.checkpoints;
+    }
+
+    /**
+     * Retourne le capital visé.
+     *
+     * @return l'objectif des trajectoires
+     */
+    public int getTargetPot() {
+        return this.targetPot;
+    }
+
+    /**
+     * Retourne le nombre de trajectoires terminées.
+     *
+     * @return le nombre de trajectoires
+     */
+    public long getTrajectories() {
+        return this.trajectories;
+    }
+
+    /**
+     * Retourne le nombre de trajectoires ruinées.
+     *
+     * @return le nombre de ruines
+     */
+    public long getRuined() {
+        return this.ruined;
+    }
+
+    /**
+     * Retourne le nombre de trajectoires ayant atteint l'objectif.
+     *
+     * @return le nombre de succès
+     */
+    public long getReachedTarget() {
+        return this.reachedTarget;
+    }
+
+    /**
+     * Retourne le nombre de trajectoires arrêtées sans ruine ni objectif.
+     *
+     * @return le nombre de trajectoires inachevées
+     */
+    public long getUnfinished() {
+        return this.trajectories - this.ruined - this.reachedTarget;
+    }
+
+    /**
+     * Retourne le nombre total de manches jouées par toutes les trajectoires.
+     *
+     * @return le nombre de manches
+     */
+    public long getRounds() {
+        return this.rounds;
+    }
+
+    /**
+     * Retourne le risque de ruine : la proportion de trajectoires ruinées.
+     *
+     * @return le risque de ruine estimé
+     */
+    public double riskOfRuin() {
+        return this.trajectories == 0 ? 0 : (double) this.ruined / this.trajectories;
+    }
+
+    /**
+     * Retourne l'erreur type du risque de ruine estimé.
+     *
+     * @return l'erreur type
+     */
+    public double standardError() {
+        if (this.trajectories == 0) {
+            return 0;
+        }
+        double p = riskOfRuin();
+        return Math.sqrt(p * (1 - p) / this.trajectories);
+    }
+
+    /**
+     * Retourne la durée moyenne, en manches, des trajectoires ruinées.
+     *
+     * @return la durée moyenne avant la ruine, NaN si aucune trajectoire n'est ruinée
+     */
+    public double meanTimeToRuin() {
+        return this.ruined == 0 ? Double.NaN : (double) this.ruinRounds / this.ruined;
+    }
+
+    /**
+     * Retourne la proportion de trajectoires ruinées au plus tard à un point de contrôle.
+     *
+     * @param checkpoint le numéro du point de contrôle, de 0 à {@link #getCheckpoints()}
+     * @return la probabilité estimée d'être ruiné après checkpoint * sampleInterval manches
+     */
+    public double ruinedBy(int checkpoint) {
+        if (this.trajectories == 0) {
+            return 0;
+        }
+        long count = 0;
+        for (int k = 0; k < checkpoint; k++) {
+            count += this.ruinTimes[k];
+        }
+        return (double) count / this.trajectories;
+    }
+
+    /**
+     * Retourne un percentile de la durée avant la ruine, parmi les trajectoires ruinées,
+     * arrondi au point de contrôle supérieur.
+     *
+     * @param q le rang du percentile, entre 0 et 1
+     * @return la durée en manches, -1 si aucune trajectoire n'est ruinée
+     */
+    public long timeToRuinPercentile(double q) {
+        if (this.ruined == 0) {
+            return -1;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * this.ruined));
+        long count = 0;
+        for (int k = 0; k < this.ruinTimes.length; k++) {
+            count += this.ruinTimes[k];
+            if (count >= rank) {
+                return (k + 1) * this.sampleInterval;
+            }
+        }
+        return this.checkpoints * this.sampleInterval;
+    }
+
+    /**
+     * Retourne un percentile du capital à un point de contrôle, sur toutes les trajectoires.
+     * Relier ces valeurs point par point donne la trajectoire de ce percentile. Le résultat est
+     * la borne supérieure de sa classe d'histogramme, limitée à l'objectif.
+     *
+     * @param checkpoint le numéro du point de contrôle, de 0 à {@link #getCheckpoints()}
+     * @param q le rang du percentile, entre 0 et 1
+     * @return le capital, -1 si aucune trajectoire n'est terminée
+     */
+    public int potPercentile(int checkpoint, double q) {
+        if (this.trajectories == 0) {
+            return -1;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * this.trajectories));
+        int bins = this.bins();
+        int base = checkpoint * bins;
+        long count = 0;
+        for (int bin = 0; bin < bins; bin++) {
+            count += this.pots[base + bin];
+            if (count >= rank) {
+                return Math.min(this.targetPot, (bin + 1) * this.binWidth - 1);
+            }
+        }
+        return this.targetPot;
+    }
+
+    /**
+     * Nombre de classes des histogrammes de capital.
+     */
+    private int bins() {
+        return this.targetPot / this.binWidth + 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d trajectoires : %d ruinées, %d à l'objectif, %d inachevées ; "
+                + "risque de ruine %.4f%% (erreur type %.4f%%), durée médiane avant la ruine %d manches",
+                this.trajectories, this.ruined, this.reachedTarget, getUnfinished(),
+                100 * riskOfRuin(), 100 * standardError(), timeToRuinPercentile(0.5));
+    }
+}
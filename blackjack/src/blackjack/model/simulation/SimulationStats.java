@@ -0,0 +1,229 @@
+package blackjack.model.simulation;
+
+/**
+ * Statistiques cumulées d'une simulation, du point de vue des joueurs (croupier exclu).
+ * Chaque main jouée est comptée comme gagnée, perdue ou nulle selon la variation du capital
+ * du joueur ; le gain net et la somme des carrés permettent d'estimer l'espérance et la variance.
+ *
+ * Tous les compteurs sont entiers : fusionner des statistiques partielles donne exactement
+ * le même résultat quel que soit l'ordre de fusion, ce qui rend une simulation parallèle
+ * reproductible indépendamment du nombre de threads.
+ */
+public class SimulationStats {
+    /**
+     * Nombre de manches jouées.
+     */
+    private long rounds;
+
+    /**
+     * Nombre de mains jouées (une par joueur et par manche).
+     */
+    private long hands;
+
+    /**
+     * Nombre de mains gagnées, perdues et nulles.
+     */
+    private long wins;
+    private long losses;
+    private long pushes;
+
+    /**
+     * Nombre de mains ayant reçu un blackjack à la distribution.
+     */
+    private long blackjacks;
+
+    /**
+     * Somme des mises (doublements compris).
+     */
+    private long wagered;
+
+    /**
+     * Somme des gains nets.
+     */
+    private long net;
+
+    /**
+     * Somme des carrés des gains nets.
+     */
+    private long netSquares;
+
+    /**
+     * Enregistre le résultat d'une main.
+     *
+     * @param bet la mise finale de la main
+     * @param result le gain net de la main
+     * @param blackjack true si la main a reçu un blackjack
+     */
+    public void recordHand(int bet, int result, boolean blackjack) {
+        this.hands++;
+        if (result > 0) {
+            this.wins++;
+        } else if (result < 0) {
+            this.losses++;
+        } else {
+            this.pushes++;
+        }
+        if (blackjack) {
+            this.blackjacks++;
+        }
+        this.wagered += bet;
+        this.net += result;
+        this.netSquares += (long) result * result;
+    }
+
+    /**
+     * Enregistre la fin d'une manche.
+     */
+    public void recordRound() {
+        this.rounds++;
+    }
+
+    /**
+     * Ajoute à ces statistiques celles d'une autre simulation.
+     *
+     * @param other les statistiques à ajouter
+     * @return ces statistiques, pour enchaîner les fusions
+     */
+    public SimulationStats merge(SimulationStats other) {
+        this.rounds += other.rounds;
+        this.hands += other.hands;
+        this.wins += other.wins;
+        this.losses += other.losses;
+        this.pushes += other.pushes;
+        this.blackjacks += other.blackjacks;
+        this.wagered += other.wagered;
+        this.net += other.net;
+        this.netSquares += other.netSquares;
+        return this;
+    }
+
+    /**
+     * Retourne le nombre de manches jouées.
+     *
+     * @return le nombre de manches jouées
+     */
+    public long getRounds() {
+        return this.rounds;
+    }
+
+    /**
+     * Retourne le nombre de mains jouées.
+     *
+     * @return le nombre de mains jouées
+     */
+    public long getHands() {
+        return this.hands;
+    }
+
+    /**
+     * Retourne le nombre de mains gagnées.
+     *
+     * @return le nombre de mains gagnées
+     */
+    public long getWins() {
+        return this.wins;
+    }
+
+    /**
+     * Retourne le nombre de mains perdues.
+     *
+     * @return le nombre de mains perdues
+     */
+    public long getLosses() {
+        return this.losses;
+    }
+
+    /**
+     * Retourne le nombre de mains nulles.
+     *
+     * @return le nombre de mains nulles
+     */
+    public long getPushes() {
+        return this.pushes;
+    }
+
+    /**
+     * Retourne le nombre de blackjacks reçus à la distribution.
+     *
+     * @return le nombre de blackjacks reçus à la distribution
+     */
+    public long getBlackjacks() {
+        return this.blackjacks;
+    }
+
+    /**
+     * Retourne la somme des mises.
+     *
+     * @return la somme des mises
+     */
+    public long getWagered() {
+        return this.wagered;
+    }
+
+    /**
+     * Retourne la somme des gains nets.
+     *
+     * @return la somme des gains nets
+     */
+    public long getNet() {
+        return this.net;
+    }
+
+    /**
+     * Retourne le gain net moyen par main.
+     *
+     * @return la moyenne, 0 si aucune main n'a été jouée
+     */
+    public double mean() {
+        return this.hands == 0 ? 0 : (double) this.net / this.hands;
+    }
+
+    /**
+     * Retourne la variance du gain net par main.
+     *
+     * @return la variance empirique, 0 s'il y a moins de deux mains
+     */
+    public double variance() {
+        if (this.hands < 2) {
+            return 0;
+        }
+        double mean = mean();
+        return ((double) this.netSquares - this.hands * mean * mean) / (this.hands - 1);
+    }
+
+    /**
+     * Retourne l'erreur type de la moyenne du gain net par main.
+     *
+     * @return l'erreur type
+     */
+    public double standardError() {
+        return this.hands == 0 ? 0 : Math.sqrt(variance() / this.hands);
+    }
+
+    /**
+     * Retourne l'avantage du joueur : gain net rapporté à la somme misée.
+     * Une valeur négative est l'avantage de la maison.
+     *
+     * @return le gain net par unité misée
+     */
+    public double edge() {
+        return this.wagered == 0 ? 0 : (double) this.net / this.wagered;
+    }
+
+    /**
+     * Retourne la fréquence des blackjacks à la distribution.
+     *
+     * @return la proportion de mains ayant reçu un blackjack
+     */
+    public double blackjackFrequency() {
+        return this.hands == 0 ? 0 : (double) this.blackjacks / this.hands;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d manches, %d mains : %d gagnées, %d perdues, %d nulles, %d blackjacks ; "
+                + "gain net %d pour %d misés (avantage %.4f%%, écart type %.3f)",
+                this.rounds, this.hands, this.wins, this.losses, this.pushes, this.blackjacks,
+                this.net, this.wagered, 100 * edge(), Math.sqrt(variance()));
+    }
+}
@@ -0,0 +1,330 @@
+package blackjack.model.strategy;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import blackjack.model.player.Hand;
+import card.game.Card;
+import card.game.RankCounts;
+
+/**
+ * Stratégie de base du blackjack : la meilleure décision pour chaque total du joueur
+ * (dur ou souple) face à chaque carte visible du croupier.
+ *
+ * Les tables sont calculées une seule fois par ensemble de règles, en supposant un sabot
+ * infini (chaque rang a toujours une probabilité de 1/13) et un joueur seul face au croupier,
+ * dont les mains sont réglées comme à la table (voir {@link Rules#TABLE}).
+ *
+ * Des tables sont aussi calculées pour chaque compte vrai Hi-Lo (voir {@link #of(Rules, int)}) :
+ * le sabot infini est alors biaisé comme un paquet de 52 cartes dont le compte Hi-Lo vaut le
+ * compte vrai, chaque petite carte (2 à 6) perdant autant de poids que chaque grosse carte
+ * (10 à As) en gagne. Les écarts à la stratégie de base selon le compte, les « indices »,
+ * découlent de ces tables et sont donc propres aux règles choisies.
+ * Comme une manche où une main vaut 21 dès la distribution est réglée sans que le joueur
+ * joue, les probabilités du croupier sont conditionnées par l'absence de 21 en deux cartes.
+ * Une décision se réduit ensuite à une lecture de tableau.
+ *
+ * Il n'y a ni partage ni abandon dans les règles de la table : les tables ne contiennent que
+ * tirer, rester et doubler.
+ */
+public final class BasicStrategy {
+    /**
+     * Décision du joueur.
+     */
+    public enum Action {
+        /** Tirer une carte. */
+        HIT,
+        /** Rester. */
+        STAND,
+        /** Doubler la mise et recevoir une seule carte. */
+        DOUBLE
+    }
+
+    private static final Action[] ACTIONS = Action.values();
+
+    /**
+     * Plus grand total du joueur indexé dans les tables.
+     */
+    private static final int MAX_TOTAL = 21;
+
+    /**
+     * Nombre de valeurs de carte visible du croupier (As = 1, ..., 10).
+     */
+    private static final int UP_VALUES = 10;
+
+    /**
+     * Issues possibles du jeu du croupier : 17, 18, 19, 20, 21 puis bust.
+     */
+    private static final int OUTCOMES = 6;
+
+    /**
+     * Plus grand compte vrai, en valeur absolue, ayant ses propres tables.
+     */
+    public static final int MAX_TRUE_COUNT = 10;
+
+    /**
+     * Stratégies déjà calculées, par ensemble de règles puis par compte vrai.
+     */
+    private static final Map<Rules, BasicStrategy[]> CACHE = new ConcurrentHashMap<>();
+
+    private final Rules rules;
+
+    private final int trueCount;
+
+    /**
+     * Décisions sur deux cartes (doublement permis), indexées par {@link #index(int, boolean, int)}.
+     */
+    private final byte[] firstActions;
+
+    /**
+     * Décisions sur trois cartes ou plus (tirer ou rester).
+     */
+    private final byte[] actions;
+
+    /**
+     * Retourne la stratégie de base d'un ensemble de règles, calculée au premier appel.
+     *
+     * @param rules les règles
+     * @return la stratégie de base de ces règles
+     */
+    public static BasicStrategy of(Rules rules) {
+        return of(rules, 0);
+    }
+
+    /**
+     * Retourne la stratégie d'un ensemble de règles pour un compte vrai Hi-Lo, calculée au premier appel.
+     *
+     * @param rules les règles
+     * @param trueCount le compte vrai, ramené entre -{@link #MAX_TRUE_COUNT} et {@link #MAX_TRUE_COUNT}
+     * @return la stratégie pour ce compte
+     */
+    public static BasicStrategy of(Rules rules, int trueCount) {
+        int tc = Math.max(-MAX_TRUE_COUNT, Math.min(MAX_TRUE_COUNT, trueCount));
+        BasicStrategy[] byCount = CACHE.computeIfAbsent(rules, r -> new BasicStrategy[2 * MAX_TRUE_COUNT + 1]);
+        BasicStrategy strategy = byCount[tc + MAX_TRUE_COUNT];
+        if (strategy == null) {
+            strategy = new BasicStrategy(rules, tc);
+            byCount[tc + MAX_TRUE_COUNT] = strategy;
+        }
+        return strategy;
+    }
+
+    /**
+     * Calcule les tables d'un ensemble de règles pour un compte vrai.
+     */
+    private BasicStrategy(Rules rules, int trueCount) {
+        this.rules = rules;
+        this.trueCount = trueCount;
+        double[] p = rankProbabilities(trueCount);
+        int size = 2 * (MAX_TOTAL + 1) * UP_VALUES;
+        this.firstActions = new byte[size];
+        this.actions = new byte[size];
+        Arrays.fill(this.actions, (byte) Action.STAND.ordinal());
+        Arrays.fill(this.firstActions, (byte) -1);
+        int states = Hand.stateCount();
+        for (int up = 1; up <= UP_VALUES; up++) {
+            double[] dealer = dealerOutcomes(up, rules.dealerHitsSoft17(), p);
+            double[] stand = new double[MAX_TOTAL + 1];
+            for (int total = 0; total <= MAX_TOTAL; total++) {
+                stand[total] = standValue(total, dealer, rules);
+            }
+            double[] hit = new double[states];
+            Arrays.fill(hit, Double.NaN);
+            for (int s = 0; s < states; s++) {
+                if (Hand.cardCountOf(s) < 2 || Hand.isBust(s)) {
+                    continue;
+                }
+                int total = Hand.totalOf(s);
+                double hitValue = hitValue(s, stand, hit, p);
+                Action best = hitValue > stand[total] ? Action.HIT : Action.STAND;
+                int i = index(total, Hand.isSoft(s), up);
+                this.actions[i] = (byte) best.ordinal();
+                if (Hand.cardCountOf(s) == 2) {
+                    double doubleValue = doubleValue(s, stand, p);
+                    if (doubleValue > Math.max(hitValue, stand[total])) {
+                        best = Action.DOUBLE;
+                    }
+                    this.firstActions[i] = (byte) best.ordinal();
+                }
+            }
+        }
+        // les totaux impossibles en deux cartes (21 dur par exemple) suivent la table générale
+        for (int i = 0; i < size; i++) {
+            if (this.firstActions[i] < 0) {
+                this.firstActions[i] = this.actions[i];
+            }
+        }
+    }
+
+    /**
+     * Retourne les règles de cette stratégie.
+     *
+     * @return les règles
+     */
+    public Rules getRules() {
+        return this.rules;
+    }
+
+    /**
+     * Retourne le compte vrai pour lequel les tables sont calculées.
+     *
+     * @return le compte vrai (0 pour la stratégie de base)
+     */
+    public int getTrueCount() {
+        return this.trueCount;
+    }
+
+    /**
+     * Retourne la décision de la stratégie de base.
+     *
+     * @param total le meilleur total de la main du joueur
+     * @param soft true si ce total est souple
+     * @param upValue la valeur de la carte visible du croupier (As = 1, figures = 10)
+     * @param canDouble true si la main n'a que ses deux premières cartes
+     * @return la décision ; {@link Action#STAND} au-delà de 21
+     */
+    public Action decide(int total, boolean soft, int upValue, boolean canDouble) {
+        if (total > MAX_TOTAL) {
+            return Action.STAND;
+        }
+        byte[] table = canDouble ? this.firstActions : this.actions;
+        return ACTIONS[table[index(total, soft, upValue)]];
+    }
+
+    /**
+     * Retourne la décision de la stratégie de base pour une main.
+     *
+     * @param hand la main du joueur
+     * @param upCard la carte visible du croupier
+     * @return la décision ; le doublement n'est proposé que sur deux cartes
+     */
+    public Action decide(Hand hand, Card upCard) {
+        return decide(hand.total(), hand.isSoft(), Card.rankValue(upCard.getRank()), hand.cardCount() == 2);
+    }
+
+    private static int index(int total, boolean soft, int upValue) {
+        return ((soft ? MAX_TOTAL + 1 : 0) + total) * UP_VALUES + upValue - 1;
+    }
+
+    /**
+     * Probabilités des issues du croupier pour une carte visible, sachant qu'il n'a pas 21 en deux cartes.
+     */
+    private static double[] dealerOutcomes(int upValue, boolean hitsSoft17, double[] p) {
+        double[][] memo = new double[Hand.stateCount()][];
+        int up = Hand.next(Hand.EMPTY, rankOfValue(upValue));
+        double[] outcomes = new double[OUTCOMES];
+        double weight = 0;
+        for (int rank = 0; rank < Card.RANK_COUNT; rank++) {
+            int s = Hand.next(up, rank);
+            if (Hand.totalOf(s) == 21) {
+                continue;
+            }
+            double[] o = dealerFinal(s, hitsSoft17, memo, p);
+            for (int k = 0; k < OUTCOMES; k++) {
+                outcomes[k] += p[rank] * o[k];
+            }
+            weight += p[rank];
+        }
+        for (int k = 0; k < OUTCOMES; k++) {
+            outcomes[k] /= weight;
+        }
+        return outcomes;
+    }
+
+    /**
+     * Probabilités des issues du croupier à partir d'un état de sa main.
+     */
+    private static double[] dealerFinal(int state, boolean hitsSoft17, double[][] memo, double[] p) {
+        if (memo[state] != null) {
+            return memo[state];
+        }
+        double[] outcomes = new double[OUTCOMES];
+        int total = Hand.totalOf(state);
+        if (total > 21) {
+            outcomes[OUTCOMES - 1] = 1;
+        } else if (total > 17 || (total == 17 && !(hitsSoft17 && Hand.isSoft(state)))) {
+            outcomes[total - 17] = 1;
+        } else {
+            for (int rank = 0; rank < Card.RANK_COUNT; rank++) {
+                double[] o = dealerFinal(Hand.next(state, rank), hitsSoft17, memo, p);
+                for (int k = 0; k < OUTCOMES; k++) {
+                    outcomes[k] += p[rank] * o[k];
+                }
+            }
+        }
+        memo[state] = outcomes;
+        return outcomes;
+    }
+
+    /**
+     * Espérance de gain, pour une mise unitaire, d'un joueur qui reste sur un total,
+     * réglée comme {@link blackjack.model.Table#isWinner(int, int, boolean)} pour un joueur seul.
+     */
+    static double standValue(int total, double[] dealer, Rules rules) {
+        double bust = dealer[OUTCOMES - 1];
+        double value = total == 21 && rules.twentyOneLosesToBust() ? -bust : bust;
+        for (int d = 17; d <= 21; d++) {
+            double p = dealer[d - 17];
+            if (total > d) {
+                value += p;
+            } else if (total < d || rules.tiesLose()) {
+                value -= p;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Espérance de gain d'un joueur qui tire une carte puis joue au mieux.
+     */
+    private static double hitValue(int state, double[] stand, double[] memo, double[] p) {
+        if (!Double.isNaN(memo[state])) {
+            return memo[state];
+        }
+        double value = 0;
+        for (int rank = 0; rank < Card.RANK_COUNT; rank++) {
+            int s = Hand.next(state, rank);
+            if (Hand.isBust(s)) {
+                value -= p[rank];
+            } else {
+                value += p[rank] * Math.max(stand[Hand.totalOf(s)], hitValue(s, stand, memo, p));
+            }
+        }
+        memo[state] = value;
+        return value;
+    }
+
+    /**
+     * Espérance de gain, rapportée à la mise initiale, d'un joueur qui double.
+     */
+    private static double doubleValue(int state, double[] stand, double[] p) {
+        double value = 0;
+        for (int rank = 0; rank < Card.RANK_COUNT; rank++) {
+            int s = Hand.next(state, rank);
+            value += p[rank] * (Hand.isBust(s) ? -1 : stand[Hand.totalOf(s)]);
+        }
+        return 2 * value;
+    }
+
+    /**
+     * Probabilités des rangs d'un sabot infini dont le compte vrai Hi-Lo vaut trueCount :
+     * sur 52 cartes, chaque rang de 2 à 6 compte trueCount/10 carte de moins que 4,
+     * et chaque rang de 10 à As autant de plus.
+     */
+    private static double[] rankProbabilities(int trueCount) {
+        double[] p = new double[Card.RANK_COUNT];
+        for (int rank = 0; rank < Card.RANK_COUNT; rank++) {
+            double cards = Card.COLOR_COUNT - RankCounts.hiLoTag(rank) * trueCount / 10.0;
+            p[rank] = cards / Card.CARD_COUNT;
+        }
+        return p;
+    }
+
+    /**
+     * Retourne un rang ayant une valeur donnée (As = 1, 10 pour le 10).
+     */
+    static int rankOfValue(int value) {
+        return value == 1 ? Card.RANK_COUNT - 1 : value - 2;
+    }
+}
@@ -0,0 +1,291 @@
+package blackjack.model.strategy;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import blackjack.model.player.Hand;
+import card.game.Deck;
+import card.game.RankCounts;
+
+/**
+ * Calcul exact des probabilités des totaux finaux du croupier (17, 18, 19, 20, 21 ou bust),
+ * connaissant sa carte visible et la composition exacte des cartes restantes.
+ *
+ * Le jeu du croupier est déroulé carte par carte en retirant chaque carte tirée de la
+ * composition, sans hypothèse de sabot infini. Comme à la table, une manche où le croupier
+ * a 21 en deux cartes est réglée avant que les joueurs ne jouent : les probabilités sont
+ * conditionnées par l'absence de 21 en deux cartes.
+ *
+ * Seule la valeur des cartes compte pour le croupier : la composition est réduite à dix
+ * compteurs (As, 2, ..., 9, cartes valant 10) et tassée dans un long, qui sert de clé au
+ * cache des résultats. Une requête répétée pour la même composition (par exemple pour chaque
+ * joueur d'une même manche) ne coûte qu'une lecture dans ce cache. Le cache garde les
+ * compositions les plus récemment utilisées dans la limite de sa capacité.
+ *
+ * Une instance n'est pas prévue pour être partagée entre plusieurs threads.
+ */
+public class DealerProbabilities {
+    /**
+     * Nombre d'issues : les totaux 17 à 21 (indices 0 à 4) puis bust.
+     */
+    public static final int OUTCOMES = 6;
+
+    /**
+     * Indice de l'issue bust.
+     */
+    public static final int BUST = OUTCOMES - 1;
+
+    /**
+     * Capacité par défaut du cache, en nombre de compositions.
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    /**
+     * Nombre de bits de la clé réservés à chaque valeur de 1 à 9, puis aux cartes valant 10.
+     */
+    private static final int VALUE_BITS = 6;
+    private static final int TEN_BITS = 8;
+
+    /**
+     * Position dans la clé du compteur des cartes valant 10.
+     */
+    private static final int TEN_SHIFT = 9 * VALUE_BITS;
+
+    /**
+     * Distributions certaines de chaque issue, partagées par tous les calculs (lecture seule).
+     */
+    private static final double[][] CERTAIN = new double[OUTCOMES][OUTCOMES];
+
+    static {
+        for (int k = 0; k < OUTCOMES; k++) {
+            CERTAIN[k][k] = 1;
+        }
+    }
+
+    private final Rules rules;
+
+    /**
+     * Résultats déjà calculés : pour chaque composition, les issues par valeur de carte visible.
+     */
+    private final Map<Long, double[][]> cache;
+
+    /**
+     * Mémoire des positions intermédiaires d'un calcul en cours, vidée à chaque calcul.
+     */
+    private final Map<Long, double[]> positions = new HashMap<>();
+
+    /**
+     * Compteurs par valeur (indice 1 à 10) de la composition en cours de calcul.
+     */
+    private final int[] counts = new int[11];
+
+    /**
+     * Construit un calculateur avec un cache de capacité par défaut.
+     *
+     * @param rules les règles de jeu du croupier
+     */
+    public DealerProbabilities(Rules rules) {
+        this(rules, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Construit un calculateur.
+     *
+     * @param rules les règles de jeu du croupier
+     * @param capacity le nombre maximal de compositions gardées en cache
+     */
+    public DealerProbabilities(Rules rules, int capacity) {
+        this.rules = rules;
+        this.cache = new LinkedHashMap<Long, double[][]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, double[][]> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Retourne les règles de jeu du croupier.
+     *
+     * @return les règles
+     */
+    public Rules getRules() {
+        return this.rules;
+    }
+
+    /**
+     * Retourne le nombre de compositions actuellement en cache.
+     *
+     * @return la taille du cache
+     */
+    public int cacheSize() {
+        return this.cache.size();
+    }
+
+    /**
+     * Calcule les probabilités des issues du croupier.
+     *
+     * @param upValue la valeur de la carte visible du croupier (As = 1, figures = 10)
+     * @param remaining les cartes restantes, carte visible déjà retirée
+     * @return les probabilités des totaux 17 à 21 (indices 0 à 4) et du bust (indice {@link #BUST})
+     * @throws IllegalArgumentException si la composition est trop grande pour la clé du cache
+     */
+    public double[] outcomes(int upValue, RankCounts remaining) {
+        for (int value = 1; value <= 10; value++) {
+            this.counts[value] = remaining.countValue(value);
+        }
+        return lookup(upValue).clone();
+    }
+
+    /**
+     * Calcule les probabilités des issues du croupier à partir des cartes d'un sabot.
+     *
+     * @param upValue la valeur de la carte visible du croupier (As = 1, figures = 10)
+     * @param shoe le sabot, carte visible déjà tirée
+     * @return les probabilités des totaux 17 à 21 (indices 0 à 4) et du bust (indice {@link #BUST})
+     * @throws IllegalArgumentException si la composition est trop grande pour la clé du cache
+     */
+    public double[] outcomes(int upValue, Deck shoe) {
+        for (int value = 1; value <= 10; value++) {
+            this.counts[value] = shoe.valueCount(value);
+        }
+        return lookup(upValue).clone();
+    }
+
+    /**
+     * Retourne les issues pour une composition donnée par valeur, sans copie : le tableau
+     * retourné appartient au cache et ne doit pas être modifié.
+     *
+     * @param upValue la valeur de la carte visible du croupier
+     * @param valueCounts les compteurs par valeur (indices 1 à 10)
+     * @return les probabilités des issues
+     */
+    double[] lookup(int upValue, int[] valueCounts) {
+        System.arraycopy(valueCounts, 1, this.counts, 1, 10);
+        return lookup(upValue);
+    }
+
+    /**
+     * Calcule les issues pour la composition rangée dans {@link #counts}, en passant par le cache.
+     * Si les cartes restantes peuvent s'épuiser avant la fin du jeu du croupier, les tirages
+     * concernés ne comptent dans aucune issue et le total des probabilités est inférieur à 1.
+     */
+    private double[] lookup(int upValue) {
+        long key = pack(this.counts);
+        double[][] byUpCard = this.cache.get(key);
+        if (byUpCard == null) {
+            byUpCard = new double[11][];
+            this.cache.put(key, byUpCard);
+        }
+        double[] result = byUpCard[upValue];
+        if (result == null) {
+            result = compute(upValue, key);
+            byUpCard[upValue] = result;
+        }
+        return result;
+    }
+
+    /**
+     * Déroule le jeu du croupier à partir de sa carte visible, la carte cachée ne pouvant pas
+     * lui donner 21.
+     */
+    private double[] compute(int upValue, long key) {
+        this.positions.clear();
+        int[] counts = this.counts;
+        int up = Hand.next(Hand.EMPTY, BasicStrategy.rankOfValue(upValue));
+        int remaining = size(counts);
+        double[] result = new double[OUTCOMES];
+        double weight = 0;
+        for (int value = 1; value <= 10; value++) {
+            int n = counts[value];
+            int s = Hand.next(up, BasicStrategy.rankOfValue(value));
+            if (n == 0 || Hand.totalOf(s) == 21) {
+                continue;
+            }
+            double p = (double) n / remaining;
+            counts[value]--;
+            double[] o = play(s, remaining - 1, key - unit(value));
+            counts[value]++;
+            for (int k = 0; k < OUTCOMES; k++) {
+                result[k] += p * o[k];
+            }
+            weight += p;
+        }
+        if (weight > 0) {
+            for (int k = 0; k < OUTCOMES; k++) {
+                result[k] /= weight;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Issues du croupier à partir d'un état de sa main, les cartes restantes étant dans {@link #counts}.
+     */
+    private double[] play(int state, int remaining, long key) {
+        int total = Hand.totalOf(state);
+        if (total > 21) {
+            return CERTAIN[BUST];
+        }
+        if (total > 17 || (total == 17 && !(this.rules.dealerHitsSoft17() && Hand.isSoft(state)))) {
+            return CERTAIN[total - 17];
+        }
+        double[] known = this.positions.get(key);
+        if (known != null) {
+            return known;
+        }
+        double[] result = new double[OUTCOMES];
+        int[] counts = this.counts;
+        for (int value = 1; value <= 10; value++) {
+            int n = counts[value];
+            if (n == 0) {
+                continue;
+            }
+            double p = (double) n / remaining;
+            counts[value]--;
+            double[] o = play(Hand.next(state, BasicStrategy.rankOfValue(value)), remaining - 1, key - unit(value));
+            counts[value]++;
+            for (int k = 0; k < OUTCOMES; k++) {
+                result[k] += p * o[k];
+            }
+        }
+        this.positions.put(key, result);
+        return result;
+    }
+
+    /**
+     * Tasse des compteurs par valeur (indices 1 à 10) dans un long : 6 bits par valeur de 1 à 9
+     * et 8 bits pour les cartes valant 10, soit jusqu'à 15 jeux de 52 cartes.
+     *
+     * @param counts les compteurs par valeur
+     * @return la clé de la composition
+     * @throws IllegalArgumentException si un compteur dépasse la place qui lui est réservée
+     */
+    static long pack(int[] counts) {
+        long key = 0;
+        for (int value = 1; value <= 10; value++) {
+            int bits = value == 10 ? TEN_BITS : VALUE_BITS;
+            if (counts[value] < 0 || counts[value] >= 1 << bits) {
+                throw new IllegalArgumentException("Composition trop grande : " + counts[value] + " cartes de valeur " + value);
+            }
+            key += (long) counts[value] * unit(value);
+        }
+        return key;
+    }
+
+    /**
+     * Retourne ce que vaut une carte d'une valeur dans la clé d'une composition.
+     */
+    static long unit(int value) {
+        return value == 10 ? 1L << TEN_SHIFT : 1L << ((value - 1) * VALUE_BITS);
+    }
+
+    private static int size(int[] counts) {
+        int size = 0;
+        for (int value = 1; value <= 10; value++) {
+            size += counts[value];
+        }
+        return size;
+    }
+}
@@ -0,0 +1,286 @@
+package blackjack.model.strategy;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import blackjack.model.player.Hand;
+import card.game.RankCounts;
+
+/**
+ * Calcul exact de l'espérance de gain de chaque décision (rester, tirer, doubler) pour une main,
+ * connaissant la carte visible du croupier et la composition exacte des cartes non vues.
+ *
+ * Rester est évalué avec les probabilités du croupier pour la composition courante
+ * ({@link DealerProbabilities}). Tirer est évalué récursivement : pour chaque valeur de carte,
+ * la carte est retirée de la composition et le joueur choisit ensuite au mieux entre rester et
+ * tirer encore. Doubler reçoit une seule carte et double la mise. Les espérances sont exprimées
+ * pour une mise initiale unitaire.
+ *
+ * Comme pour le croupier, la composition est tassée dans un long. Les espérances de tirage déjà
+ * calculées sont gardées par composition, puis par carte visible et par total du joueur
+ * (dur ou souple) : les positions qu'une récursion rencontre plusieurs fois, et les requêtes
+ * répétées au cours d'un même sabot, ne sont calculées qu'une fois. Le cache garde les
+ * compositions les plus récemment utilisées dans la limite de sa capacité.
+ *
+ * Les mains sont réglées selon les règles données, qui décrivent un joueur seul face au
+ * croupier : avec {@link Rules#TABLE}, exactement comme {@link blackjack.model.Table#isWinner(int,
+ * int, boolean)} le fait pour ce joueur (égalités perdues, 21 battu par un croupier qui saute).
+ * Le règlement des autres places d'une table à plusieurs joueurs, qui dépend aussi des mains
+ * voisines, n'est pas représenté.
+ *
+ * La carte cachée du croupier fait partie des cartes non vues ; comme pour la stratégie de
+ * base, les cartes du joueur sont supposées indépendantes du fait que le croupier n'ait pas 21
+ * en deux cartes. Une instance n'est pas prévue pour être partagée entre plusieurs threads.
+ */
+public class ExpectedValueSolver {
+    /**
+     * Capacité par défaut des caches, en nombre de compositions.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /**
+     * Nombre de positions (total, souple) du joueur par carte visible.
+     */
+    private static final int POSITIONS = 2 * 22;
+
+    private final Rules rules;
+
+    /**
+     * Probabilités du croupier, utilisées pour évaluer le fait de rester.
+     */
+    private final DealerProbabilities dealer;
+
+    /**
+     * Espérances de tirage par composition, puis par carte visible et position du joueur
+     * (NaN tant qu'elles ne sont pas calculées).
+     */
+    private final Map<Long, double[][]> hitValues;
+
+    /**
+     * Compteurs par valeur (indices 1 à 10) de la composition en cours d'évaluation.
+     */
+    private final int[] counts = new int[11];
+
+    /**
+     * Construit un solveur avec des caches de capacité par défaut.
+     *
+     * @param rules les règles de jeu
+     */
+    public ExpectedValueSolver(Rules rules) {
+        this(rules, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Construit un solveur.
+     *
+     * @param rules les règles de jeu
+     * @param capacity le nombre maximal de compositions gardées dans chaque cache
+     */
+    public ExpectedValueSolver(Rules rules, int capacity) {
+        this.rules = rules;
+        this.dealer = new DealerProbabilities(rules, capacity);
+        this.hitValues = new LinkedHashMap<Long, double[][]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, double[][]> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Retourne les règles de jeu.
+     *
+     * @return les règles
+     */
+    public Rules getRules() {
+        return this.rules;
+    }
+
+    /**
+     * Évalue les décisions possibles pour une main.
+     *
+     * @param hand la main du joueur
+     * @param upValue la valeur de la carte visible du croupier (As = 1, figures = 10)
+     * @param unseen les cartes non vues : sabot et carte cachée du croupier
+     * @return les espérances de chaque décision
+     * @throws IllegalArgumentException si la composition est trop grande pour la clé du cache
+     */
+    public Evaluation evaluate(Hand hand, int upValue, RankCounts unseen) {
+        return evaluate(hand.getState(), upValue, unseen);
+    }
+
+    /**
+     * Évalue les décisions possibles pour un état de main (voir {@link Hand#getState()}).
+     *
+     * @param state l'état de la main du joueur
+     * @param upValue la valeur de la carte visible du croupier (As = 1, figures = 10)
+     * @param unseen les cartes non vues : sabot et carte cachée du croupier
+     * @return les espérances de chaque décision
+     * @throws IllegalArgumentException si la composition est trop grande pour la clé du cache
+     */
+    public Evaluation evaluate(int state, int upValue, RankCounts unseen) {
+        int[] counts = this.counts;
+        for (int value = 1; value <= 10; value++) {
+            counts[value] = unseen.countValue(value);
+        }
+        return evaluateCounts(state, upValue);
+    }
+
+    /**
+     * Évalue les décisions possibles pour un état de main, la composition étant donnée par valeur.
+     *
+     * @param state l'état de la main du joueur
+     * @param upValue la valeur de la carte visible du croupier (As = 1, figures = 10)
+     * @param valueCounts le nombre de cartes non vues de chaque valeur (indices 1 à 10, As = 1)
+     * @return les espérances de chaque décision
+     * @throws IllegalArgumentException si la composition est trop grande pour la clé du cache
+     */
+    public Evaluation evaluate(int state, int upValue, int[] valueCounts) {
+        System.arraycopy(valueCounts, 1, this.counts, 1, 10);
+        return evaluateCounts(state, upValue);
+    }
+
+    /**
+     * Évalue les décisions possibles pour la composition rangée dans {@link #counts}.
+     */
+    private Evaluation evaluateCounts(int state, int upValue) {
+        int[] counts = this.counts;
+        long key = DealerProbabilities.pack(counts);
+        int remaining = 0;
+        for (int value = 1; value <= 10; value++) {
+            remaining += counts[value];
+        }
+        if (Hand.isBust(state)) {
+            return new Evaluation(-1, -1, -2);
+        }
+        double stand = standValue(state, upValue);
+        double hit = hitValue(state, upValue, key, remaining);
+        double doubleDown = 0;
+        for (int value = 1; value <= 10; value++) {
+            int n = counts[value];
+            if (n == 0) {
+                continue;
+            }
+            double p = (double) n / remaining;
+            int s = Hand.next(state, BasicStrategy.rankOfValue(value));
+            counts[value]--;
+            doubleDown += p * (Hand.isBust(s) ? -1 : standValue(s, upValue));
+            counts[value]++;
+        }
+        return new Evaluation(stand, hit, remaining == 0 ? Double.NEGATIVE_INFINITY : 2 * doubleDown);
+    }
+
+    /**
+     * Espérance de gain d'un joueur qui reste, pour la composition rangée dans {@link #counts}.
+     */
+    private double standValue(int state, int upValue) {
+        double[] outcomes = this.dealer.lookup(upValue, this.counts);
+        return BasicStrategy.standValue(Hand.totalOf(state), outcomes, this.rules);
+    }
+
+    /**
+     * Espérance de gain d'un joueur qui tire puis joue au mieux, pour la composition rangée
+     * dans {@link #counts} (de clé key et de taille remaining).
+     */
+    private double hitValue(int state, int upValue, long key, int remaining) {
+        if (remaining == 0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        double[][] byUpCard = this.hitValues.get(key);
+        if (byUpCard == null) {
+            byUpCard = new double[11][];
+            this.hitValues.put(key, byUpCard);
+        }
+        double[] values = byUpCard[upValue];
+        if (values == null) {
+            values = new double[POSITIONS];
+            Arrays.fill(values, Double.NaN);
+            byUpCard[upValue] = values;
+        }
+        int position = (Hand.isSoft(state) ? 22 : 0) + Hand.totalOf(state);
+        if (!Double.isNaN(values[position])) {
+            return values[position];
+        }
+        int[] counts = this.counts;
+        double value = 0;
+        for (int v = 1; v <= 10; v++) {
+            int n = counts[v];
+            if (n == 0) {
+                continue;
+            }
+            double p = (double) n / remaining;
+            int s = Hand.next(state, BasicStrategy.rankOfValue(v));
+            if (Hand.isBust(s)) {
+                value -= p;
+                continue;
+            }
+            counts[v]--;
+            long next = key - DealerProbabilities.unit(v);
+            value += p * Math.max(standValue(s, upValue), hitValue(s, upValue, next, remaining - 1));
+            counts[v]++;
+        }
+        values[position] = value;
+        return value;
+    }
+
+    /**
+     * Espérances de gain des décisions possibles pour une main, pour une mise initiale unitaire.
+     */
+    public static final class Evaluation {
+        private final double stand;
+        private final double hit;
+        private final double doubleDown;
+
+        private Evaluation(double stand, double hit, double doubleDown) {
+            this.stand = stand;
+            this.hit = hit;
+            this.doubleDown = doubleDown;
+        }
+
+        /**
+         * Retourne l'espérance de gain si le joueur reste.
+         *
+         * @return l'espérance en rester
+         */
+        public double stand() {
+            return this.stand;
+        }
+
+        /**
+         * Retourne l'espérance de gain si le joueur tire puis joue au mieux.
+         *
+         * @return l'espérance en tirant
+         */
+        public double hit() {
+            return this.hit;
+        }
+
+        /**
+         * Retourne l'espérance de gain si le joueur double (une seule carte, mise doublée).
+         *
+         * @return l'espérance en doublant, rapportée à la mise initiale
+         */
+        public double doubleDown() {
+            return this.doubleDown;
+        }
+
+        /**
+         * Retourne la meilleure décision.
+         *
+         * @param canDouble true si le doublement est permis (deux premières cartes)
+         * @return la décision d'espérance maximale ; rester en cas d'égalité
+         */
+        public BasicStrategy.Action best(boolean canDouble) {
+            if (canDouble && this.doubleDown > Math.max(this.stand, this.hit)) {
+                return BasicStrategy.Action.DOUBLE;
+            }
+            return this.hit > this.stand ? BasicStrategy.Action.HIT : BasicStrategy.Action.STAND;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("rester %.4f, tirer %.4f, doubler %.4f", this.stand, this.hit, this.doubleDown);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package blackjack.model.strategy;
+
+/**
+ * Règles de jeu qui influencent la stratégie d'un joueur.
+ *
+ * Seules les règles que les tables de jeu peuvent appliquer sont représentées : le jeu du
+ * croupier sur un 17 souple, le sort des égalités et celui d'un 21 face à un croupier qui
+ * saute. Le doublement est toujours permis sur les deux premières cartes, comme dans
+ * {@link blackjack.model.Table}.
+ *
+ * Les stratégies calculées avec ces règles supposent un joueur seul face au croupier : le
+ * règlement d'une main ne dépend que de cette main et de celle du croupier.
+ */
+public final class Rules {
+    /**
+     * Règles appliquées par {@link blackjack.model.Table} à un joueur seul face au croupier : le
+     * croupier reste sur tous les 17, le joueur perd les égalités, et un joueur resté sur 21 perd
+     * si le croupier saute (voir {@link #twentyOneLosesToBust()}).
+     *
+     * Avec plusieurs joueurs, la table règle aussi autrement les mains des autres places dès
+     * qu'une main vaut 21 : un joueur qui n'a pas 21 perd alors même si le croupier saute
+     * ({@link blackjack.model.Table#isWinner(int, int, boolean)}). Cette dépendance entre places
+     * n'est pas représentée : pour ces joueurs, les stratégies restent une approximation.
+     */
+    public static final Rules TABLE = new Rules(false, true, true);
+
+    /**
+     * Indique si le croupier tire sur un 17 souple.
+     */
+    private final boolean dealerHitsSoft17;
+
+    /**
+     * Indique si le joueur perd en cas d'égalité avec le croupier (sinon il récupère sa mise).
+     */
+    private final boolean tiesLose;
+
+    /**
+     * Indique si un joueur resté sur 21 perd quand le croupier saute.
+     */
+    private final boolean twentyOneLosesToBust;
+
+    /**
+     * Construit un ensemble de règles.
+     *
+     * @param dealerHitsSoft17 true si le croupier tire sur un 17 souple
+     * @param tiesLose true si le joueur perd les égalités, false s'il récupère sa mise
+     * @param twentyOneLosesToBust true si un joueur resté sur 21 perd quand le croupier saute
+     */
+    public Rules(boolean dealerHitsSoft17, boolean tiesLose, boolean twentyOneLosesToBust) {
+        this.dealerHitsSoft17 = dealerHitsSoft17;
+        this.tiesLose = tiesLose;
+        this.twentyOneLosesToBust = twentyOneLosesToBust;
+    }
+
+    /**
+     * Construit un ensemble de règles où un 21 gagne toujours contre un croupier qui saute.
+     *
+     * @param dealerHitsSoft17 true si le croupier tire sur un 17 souple
+     * @param tiesLose true si le joueur perd les égalités, false s'il récupère sa mise
+     */
+    public Rules(boolean dealerHitsSoft17, boolean tiesLose) {
+        this(dealerHitsSoft17, tiesLose, false);
+    }
+
+    /**
+     * Indique si le croupier tire sur un 17 souple.
+     *
+     * @return true si le croupier tire sur un 17 souple
+     */
+    public boolean dealerHitsSoft17() {
+        return this.dealerHitsSoft17;
+    }
+
+    /**
+     * Indique si le joueur perd en cas d'égalité avec le croupier.
+     *
+     * @return true si les égalités sont perdues
+     */
+    public boolean tiesLose() {
+        return this.tiesLose;
+    }
+
+    /**
+     * Indique si un joueur resté sur 21 perd quand le croupier saute. C'est le cas à la table :
+     * dès qu'une main vaut 21, seul un 21 face à un croupier resté sous 21 gagne.
+     *
+     * @return true si un 21 perd contre un croupier qui saute
+     */
+    public boolean twentyOneLosesToBust() {
+        return this.twentyOneLosesToBust;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Rules)) {
+            return false;
+        }
+        Rules other = (Rules) o;
+        return this.dealerHitsSoft17 == other.dealerHitsSoft17 && this.tiesLose == other.tiesLose
+                && this.twentyOneLosesToBust == other.twentyOneLosesToBust;
+    }
+
+    @Override
+    public int hashCode() {
+        return (this.twentyOneLosesToBust ? 4 : 0) + (this.dealerHitsSoft17 ? 2 : 0) + (this.tiesLose ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        return (this.dealerHitsSoft17 ? "H17" : "S17") + (this.tiesLose ? ", égalités perdues" : ", égalités rendues")
+                + (this.twentyOneLosesToBust ? ", 21 battu par un croupier qui saute" : "");
+    }
+}
@@ -42,9 +42,13 @@ public abstract class ModeleObservable implements Observable {
      * Notifie tous les observateurs enregistrés d'un changement d'état.
      * Appelle la méthode mettreAJour() de chaque observateur dans la liste.
      * Affiche également un message de debug indiquant le nombre d'observateurs notifiés.
+     * Sans observateur, la méthode ne fait rien : les simulations sans interface n'en paient pas le coût.
      */
     @Override
     public void notifierObservateurs() {
+        if (observateurs.isEmpty()) {
+            return;
+        }
         System.out.println(">>> Notifiant " + observateurs.size() + " observateur(s)...");
         for (Observateur observateur : observateurs) {
             observateur.mettreAJour();
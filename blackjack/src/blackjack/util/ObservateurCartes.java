@@ -0,0 +1,25 @@
+package blackjack.util;
+
+/**
+ * Interface définissant un observateur des cartes distribuées à une table.
+ * Contrairement à {@link Observateur}, qui est seulement prévenu qu'un changement a eu lieu,
+ * cet observateur reçoit chaque carte au moment où elle devient visible. Les notifications
+ * ne transportent que des entiers, pour ne rien allouer pendant la distribution : un joueur
+ * qui compte les cartes peut ainsi suivre des millions de manches simulées sans surcoût.
+ */
+public interface ObservateurCartes {
+
+    /**
+     * Méthode appelée lorsqu'une carte devient visible : carte distribuée face visible,
+     * ou carte cachée du croupier révélée en fin de manche.
+     *
+     * @param ordinal l'ordinal de la carte (voir {@link card.game.Card#of(int)})
+     */
+    public void carteVue(int ordinal);
+
+    /**
+     * Méthode appelée lorsque le sabot a été remélangé : les cartes vues jusque-là
+     * sont de nouveau dans le sabot.
+     */
+    public void sabotMelange();
+}
@@ -3,28 +3,209 @@ package card.game;
 /**
  * Représente une carte à jouer avec une couleur, un nom et une valeur.
  * Cette classe encapsule les propriétés fondamentales d'une carte de jeu.
+ *
+ * Chaque carte est identifiée par un ordinal compact compris entre 0 et 51 :
+ * les 2 bits de poids faible codent la couleur et les bits suivants le rang
+ * (0 = "2", ..., 12 = "As"). Les 52 cartes canoniques sont créées une seule fois
+ * et partagées ; on les obtient avec {@link #of(int)} ou {@link #of(int, int)}.
  */
 public class Card {
-    private String color;
-    private String name;
-    private int value;
+    /**
+     * Nombre de couleurs d'un jeu standard.
+     */
+    public static final int COLOR_COUNT = 4;
+
+    /**
+     * Nombre de rangs d'un jeu standard (du 2 à l'As).
+     */
+    public static final int RANK_COUNT = 13;
+
+    /**
+     * Nombre de cartes distinctes d'un jeu standard.
+     */
+    public static final int CARD_COUNT = COLOR_COUNT * RANK_COUNT;
+
+    /**
+     * Nombre de bits utilisés pour coder la couleur dans l'ordinal.
+     */
+    public static final int COLOR_BITS = 2;
+
+    /**
+     * Noms des couleurs, indexés par numéro de couleur.
+     */
+    private static final String[] COLORS = {"Pique", "Coeur", "Carreau", "Trefle"};
+
+    /**
+     * Noms des rangs, indexés par numéro de rang.
+     */
+    private static final String[] NAMES = {"2", "3", "4", "5", "6", "7", "8", "9", "10", "Valet", "Reine", "Roi", "As"};
+
+    /**
+     * Valeurs des rangs : les figures valent 10 et l'As vaut 1.
+     */
+    private static final int[] VALUES = {2, 3, 4, 5, 6, 7, 8, 9, 10, 10, 10, 10, 1};
+
+    /**
+     * Les 52 cartes canoniques, indexées par ordinal.
+     */
+    private static final Card[] CARDS = new Card[CARD_COUNT];
+
+    static {
+        for (int ordinal = 0; ordinal < CARD_COUNT; ordinal++) {
+            int rank = ordinal >> COLOR_BITS;
+            int color = ordinal & (COLOR_COUNT - 1);
+            CARDS[ordinal] = new Card(COLORS[color], NAMES[rank], VALUES[rank], ordinal);
+        }
+    }
+
+    private final String color;
+    private final String name;
+    private final int value;
+    private final int ordinal;
 
     /**
      * Construit une nouvelle carte avec les attributs spécifiés.
-     * 
+     * L'ordinal est déduit de la couleur et du nom ; il vaut -1 si la carte
+     * ne fait pas partie d'un jeu standard.
+     *
      * @param color la couleur de la carte (Pique, Coeur, Carreau, Trèfle)
      * @param name le nom de la carte (1, 2, ... , 10, Valet, Reine, Roi, As)
      * @param value la valeur numérique de la carte
      */
     public Card(String color, String name, int value ){
+        this(color, name, value, ordinalOf(color, name));
+    }
+
+    private Card(String color, String name, int value, int ordinal){
         this.color = color;
         this.name = name;
         this.value = value;
+        this.ordinal = ordinal;
+    }
+
+    /**
+     * Retourne la carte canonique correspondant à un ordinal.
+     *
+     * @param ordinal l'ordinal de la carte (entre 0 et 51)
+     * @return la carte partagée correspondante
+     */
+    public static Card of(int ordinal){
+        return CARDS[ordinal];
+    }
+
+    /**
+     * Retourne la carte canonique correspondant à un rang et une couleur.
+     *
+     * @param rank le numéro de rang (0 = "2", ..., 12 = "As")
+     * @param color le numéro de couleur (0 = Pique, 1 = Coeur, 2 = Carreau, 3 = Trefle)
+     * @return la carte partagée correspondante
+     */
+    public static Card of(int rank, int color){
+        return CARDS[ordinal(rank, color)];
+    }
+
+    /**
+     * Calcule l'ordinal d'une carte à partir de son rang et de sa couleur.
+     *
+     * @param rank le numéro de rang
+     * @param color le numéro de couleur
+     * @return l'ordinal de la carte
+     */
+    public static int ordinal(int rank, int color){
+        return (rank << COLOR_BITS) | color;
+    }
+
+    /**
+     * Extrait le numéro de rang d'un ordinal.
+     *
+     * @param ordinal l'ordinal de la carte
+     * @return le numéro de rang (0 = "2", ..., 12 = "As")
+     */
+    public static int rankOf(int ordinal){
+        return ordinal >> COLOR_BITS;
+    }
+
+    /**
+     * Extrait le numéro de couleur d'un ordinal.
+     *
+     * @param ordinal l'ordinal de la carte
+     * @return le numéro de couleur
+     */
+    public static int colorOf(int ordinal){
+        return ordinal & (COLOR_COUNT - 1);
+    }
+
+    /**
+     * Retourne la valeur d'une carte à partir de son ordinal, sans passer par l'objet.
+     *
+     * @param ordinal l'ordinal de la carte
+     * @return la valeur de la carte
+     */
+    public static int valueOf(int ordinal){
+        return VALUES[ordinal >> COLOR_BITS];
     }
-    
+
+    /**
+     * Retourne la valeur des cartes d'un rang.
+     *
+     * @param rank le numéro de rang (0 = "2", ..., 12 = "As")
+     * @return la valeur des cartes de ce rang
+     */
+    public static int rankValue(int rank){
+        return VALUES[rank];
+    }
+
+    /**
+     * Retourne l'ordinal d'une carte à partir de sa couleur et de son nom.
+     *
+     * @param color la couleur de la carte
+     * @param name le nom de la carte
+     * @return l'ordinal, ou -1 si la carte n'appartient pas à un jeu standard
+     */
+    public static int ordinalOf(String color, String name){
+        int rank = rankOf(name);
+        int c = colorOf(color);
+        if(rank < 0 || c < 0){
+            return -1;
+        }
+        return ordinal(rank, c);
+    }
+
+    /**
+     * Retourne le numéro de rang correspondant à un nom de carte.
+     *
+     * @param name le nom de la carte (2-10, Valet, Reine, Roi, As)
+     * @return le numéro de rang, ou -1 si le nom est inconnu
+     */
+    public static int rankOf(String name){
+        return indexOf(NAMES, name);
+    }
+
+    /**
+     * Retourne le numéro d'une couleur. L'orthographe accentuée "Trèfle" est acceptée.
+     *
+     * @param color le nom de la couleur
+     * @return le numéro de couleur, ou -1 si la couleur est inconnue
+     */
+    public static int colorOf(String color){
+        if("Trèfle".equals(color)){
+            return COLOR_COUNT - 1;
+        }
+        return indexOf(COLORS, color);
+    }
+
+    private static int indexOf(String[] values, String s){
+        for(int i = 0; i < values.length; i++){
+            if(values[i].equals(s)){
+                return i;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Retourne la couleur de la carte.
-     * 
+     *
      * @return la couleur de la carte
      */
     public String getColor(){
@@ -33,7 +214,7 @@ public class Card {
 
     /**
      * Retourne le nom de la carte.
-     * 
+     *
      * @return le nom de la carte
      */
     public String getName(){
@@ -42,7 +223,7 @@ public class Card {
 
     /**
      * Retourne la valeur numérique de la carte.
-     * 
+     *
      * @return la valeur de la carte
      */
     public int getValue(){
@@ -50,22 +231,67 @@ public class Card {
     }
 
     /**
-     * Modifie la valeur de la carte.
-     * 
-     * @param value la nouvelle valeur à attribuer à la carte
+     * Retourne l'ordinal de la carte.
+     *
+     * @return l'ordinal (entre 0 et 51), ou -1 pour une carte hors jeu standard
      */
-    public void setValue(int value){
-        this.value = value;
+    public int getOrdinal(){
+        return this.ordinal;
+    }
+
+    /**
+     * Retourne le numéro de rang de la carte.
+     *
+     * @return le numéro de rang (0 = "2", ..., 12 = "As"), ou -1 pour une carte hors jeu standard
+     */
+    public int getRank(){
+        return this.ordinal < 0 ? -1 : rankOf(this.ordinal);
+    }
+
+    /**
+     * Indique si la carte est un As.
+     *
+     * @return true si la carte est un As, false sinon
+     */
+    public boolean isAce(){
+        return this.ordinal >= 0 && rankOf(this.ordinal) == RANK_COUNT - 1;
+    }
+
+    /**
+     * Compare deux cartes. Deux cartes d'un jeu standard sont égales si elles
+     * ont le même ordinal et la même valeur.
+     *
+     * @param o l'objet à comparer
+     * @return true si les deux cartes sont identiques
+     */
+    @Override
+    public boolean equals(Object o){
+        if(this == o){
+            return true;
+        }
+        if(!(o instanceof Card)){
+            return false;
+        }
+        Card other = (Card) o;
+        if(this.ordinal < 0 || other.ordinal < 0){
+            return false;
+        }
+        return this.ordinal == other.ordinal && this.value == other.value;
+    }
+
+    @Override
+    public int hashCode(){
+        return this.ordinal < 0 ? System.identityHashCode(this) : this.ordinal;
     }
 
     /**
      * Retourne une représentation textuelle de la carte.
-     * 
+     *
      * @return une chaîne au format "nom couleur" (ex: "As Pique")
      */
     @Override
     public String toString(){
         return this.name +" "+this.color;
     }
-    
-}
\ No newline at end of file
+
+}
@@ -0,0 +1,181 @@
+package card.game;
+
+/**
+ * Opérations sur un ensemble de cartes d'un seul jeu de 52 cartes représenté par un masque de 64 bits.
+ * Le bit numéro n est à 1 si la carte d'ordinal n est présente. Grâce au codage des ordinaux
+ * (rang sur les bits de poids fort, couleur sur les 2 bits de poids faible), les quatre cartes
+ * d'un même rang occupent 4 bits consécutifs : compter un rang ou totaliser une main ne
+ * demande que quelques comptages de bits.
+ *
+ * Un masque convient à une main ou aux cartes restantes d'un jeu unique ; pour un sabot de
+ * plusieurs jeux, où une même carte peut apparaître plusieurs fois, utiliser {@link RankCounts}.
+ */
+public final class CardMask {
+    /**
+     * Masque vide.
+     */
+    public static final long EMPTY = 0L;
+
+    /**
+     * Masque contenant les 52 cartes.
+     */
+    public static final long FULL_DECK = (1L << Card.CARD_COUNT) - 1;
+
+    /**
+     * Bits des quatre cartes d'un rang, pour le rang 0.
+     */
+    private static final long RANK_BITS = (1L << Card.COLOR_COUNT) - 1;
+
+    /**
+     * Rang des 10 (les figures suivent immédiatement).
+     */
+    private static final int TEN_RANK = 8;
+
+    /**
+     * Rang des As.
+     */
+    private static final int ACE_RANK = Card.RANK_COUNT - 1;
+
+    /**
+     * Bits des cartes valant 10 : 10, Valet, Reine et Roi.
+     */
+    private static final long TENS = ((1L << (4 * Card.COLOR_COUNT)) - 1) << (TEN_RANK * Card.COLOR_COUNT);
+
+    /**
+     * Bits des As.
+     */
+    private static final long ACES = RANK_BITS << (ACE_RANK * Card.COLOR_COUNT);
+
+    /**
+     * Constructeur privé pour empêcher l'instanciation.
+     * Cette classe ne contient que des méthodes statiques.
+     */
+    private CardMask(){}
+
+    /**
+     * Construit le masque des cartes d'un paquet.
+     *
+     * @param deck le paquet, qui ne doit contenir chaque carte qu'une fois
+     * @return le masque des cartes du paquet
+     */
+    public static long of(Deck deck){
+        long mask = EMPTY;
+        for(int i = 0; i < deck.size(); i++){
+            mask |= 1L << deck.ordinalAt(i);
+        }
+        return mask;
+    }
+
+    /**
+     * Ajoute une carte au masque.
+     *
+     * @param mask le masque
+     * @param ordinal l'ordinal de la carte
+     * @return le masque avec la carte
+     */
+    public static long add(long mask, int ordinal){
+        return mask | (1L << ordinal);
+    }
+
+    /**
+     * Retire une carte du masque.
+     *
+     * @param mask le masque
+     * @param ordinal l'ordinal de la carte
+     * @return le masque sans la carte
+     */
+    public static long remove(long mask, int ordinal){
+        return mask & ~(1L << ordinal);
+    }
+
+    /**
+     * Indique si une carte est présente dans le masque.
+     *
+     * @param mask le masque
+     * @param ordinal l'ordinal de la carte
+     * @return true si la carte est présente
+     */
+    public static boolean contains(long mask, int ordinal){
+        return (mask & (1L << ordinal)) != 0;
+    }
+
+    /**
+     * Retourne le nombre de cartes du masque.
+     *
+     * @param mask le masque
+     * @return le nombre de cartes
+     */
+    public static int size(long mask){
+        return Long.bitCount(mask);
+    }
+
+    /**
+     * Retourne le nombre de cartes d'un rang présentes dans le masque.
+     *
+     * @param mask le masque
+     * @param rank le numéro de rang (0 = "2", ..., 12 = "As")
+     * @return le nombre de cartes de ce rang (entre 0 et 4)
+     */
+    public static int rankCount(long mask, int rank){
+        return Long.bitCount(mask & (RANK_BITS << (rank * Card.COLOR_COUNT)));
+    }
+
+    /**
+     * Retourne le nombre de cartes valant 10 (10 et figures) présentes dans le masque.
+     *
+     * @param mask le masque
+     * @return le nombre de cartes valant 10
+     */
+    public static int tenCount(long mask){
+        return Long.bitCount(mask & TENS);
+    }
+
+    /**
+     * Retourne le nombre d'As présents dans le masque.
+     *
+     * @param mask le masque
+     * @return le nombre d'As
+     */
+    public static int aceCount(long mask){
+        return Long.bitCount(mask & ACES);
+    }
+
+    /**
+     * Retourne le total des cartes du masque, chaque As comptant pour 1.
+     *
+     * @param mask le masque
+     * @return le total dur
+     */
+    public static int hardTotal(long mask){
+        int total = 10 * tenCount(mask) + aceCount(mask);
+        for(int rank = 0; rank < TEN_RANK; rank++){
+            total += Card.rankValue(rank) * rankCount(mask, rank);
+        }
+        return total;
+    }
+
+    /**
+     * Retourne le meilleur total de blackjack des cartes du masque :
+     * un As compte pour 11 si le total ne dépasse pas 21.
+     *
+     * @param mask le masque
+     * @return le meilleur total
+     */
+    public static int total(long mask){
+        int hard = hardTotal(mask);
+        if((mask & ACES) != 0 && hard <= 11){
+            return hard + 10;
+        }
+        return hard;
+    }
+
+    /**
+     * Indique si le total des cartes du masque est souple (un As compté pour 11).
+     *
+     * @param mask le masque
+     * @return true si le total est souple
+     */
+    public static boolean isSoft(long mask){
+        return (mask & ACES) != 0 && hardTotal(mask) <= 11;
+    }
+}
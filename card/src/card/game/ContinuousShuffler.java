@@ -0,0 +1,75 @@
+package card.game;
+
+import card.util.RandomSource;
+
+/**
+ * Représente un mélangeur continu (CSM) : les cartes jouées ne passent pas par un bac de
+ * défausse mais retournent aussitôt dans la machine, à une position aléatoire. Il n'y a
+ * donc ni carte de coupe ni remélange, et le paquet restant est toujours uniformément mélangé.
+ *
+ * Le mélangeur fonctionne en mélange paresseux permanent (voir {@link Deck#setLazyShuffle(boolean)}) :
+ * une carte rendue est simplement posée au fond, et chaque pioche choisit uniformément une carte
+ * parmi celles qui restent. Insertion et pioche se font ainsi en temps constant, avec la même loi
+ * qu'une insertion à une position aléatoire dans le paquet.
+ */
+public class ContinuousShuffler extends Shoe{
+
+    /**
+     * Construit un mélangeur continu chargé de plusieurs jeux de 52 cartes.
+     *
+     * @param numberOfDecks le nombre de jeux de 52 cartes (entre 1 et 8)
+     * @param random la source de hasard utilisée pour les tirages
+     */
+    public ContinuousShuffler(int numberOfDecks, RandomSource random){
+        super(numberOfDecks, 1, random, true);
+    }
+
+    /**
+     * Construit un mélangeur continu utilisant le générateur du thread courant.
+     *
+     * @param numberOfDecks le nombre de jeux de 52 cartes (entre 1 et 8)
+     */
+    public ContinuousShuffler(int numberOfDecks){
+        this(numberOfDecks, RandomSource.threadLocal());
+    }
+
+    /**
+     * Remet une carte jouée dans la machine, à une position aléatoire.
+     *
+     * @param c la carte rendue
+     */
+    @Override
+    public void discard(Card c){
+        this.discardOrdinal(c.getOrdinal());
+    }
+
+    /**
+     * Remet une carte jouée dans la machine, à une position aléatoire, à partir de son ordinal.
+     *
+     * @param ordinal l'ordinal de la carte rendue
+     */
+    @Override
+    public void discardOrdinal(int ordinal){
+        this.addOrdinalAtRandom(ordinal);
+    }
+
+    /**
+     * Un mélangeur continu n'a jamais besoin d'être remélangé.
+     *
+     * @return false
+     */
+    @Override
+    public boolean needsReshuffle(){
+        return false;
+    }
+
+    /**
+     * Un mélangeur continu n'a jamais besoin d'être remélangé.
+     *
+     * @return false
+     */
+    @Override
+    public boolean reshuffleIfNeeded(){
+        return false;
+    }
+}
@@ -1,91 +1,557 @@
 package card.game;
 
-import java.util.Collections;
 import java.util.LinkedList;
-import java.util.List;
-import java.util.Random;
+import java.util.NoSuchElementException;
+
+import card.util.RandomSource;
 
 /**
  * Représente un paquet de cartes avec des opérations de manipulation.
  * Cette classe permet de gérer un ensemble de cartes et d'effectuer
  * des opérations courantes comme mélanger, piocher ou couper le paquet.
+ *
+ * Les cartes sont stockées sous forme d'ordinaux (voir {@link Card#getOrdinal()})
+ * dans un tableau circulaire : la pioche et la consultation du sommet se font
+ * en temps constant et sans allocation, et la coupe d'un paquet plein se réduit
+ * à un décalage du curseur de tête.
+ *
+ * La composition du paquet (nombre de cartes par rang, voir {@link RankCounts}) est tenue
+ * à jour à chaque ajout ou retrait : elle se lit en temps constant, sans parcourir le paquet.
+ *
+ * En mode de mélange paresseux (voir {@link #setLazyShuffle(boolean)}), {@link #shuffle()}
+ * ne déplace aucune carte : chaque pioche tire uniformément une carte parmi celles qui
+ * restent, ce qui revient à effectuer le mélange de Fisher-Yates une étape à la fois.
+ * Les opérations qui dépendent de l'ordre des cartes terminent le mélange au préalable.
+ *
+ * Un mélange physique imparfait (riffle, strip, etc.) peut être appliqué avec
+ * {@link #shuffle(ShuffleProcedure)}, ou choisi comme mélange par défaut avec
+ * {@link #setShuffleProcedure(ShuffleProcedure)}.
  */
 public class Deck{
-   private LinkedList<Card> deck;
+   /**
+    * Capacité initiale d'un paquet vide.
+    */
+   private static final int DEFAULT_CAPACITY = 16;
+
+   /**
+    * Tableau circulaire des ordinaux des cartes.
+    */
+   private int[] cards;
+
+   /**
+    * Position physique de la première carte (sommet du paquet).
+    */
+   private int head;
+
+   /**
+    * Nombre de cartes présentes dans le paquet.
+    */
+   private int size;
+
+   /**
+    * Composition du paquet, mise à jour à chaque ajout ou retrait de carte.
+    */
+   private final RankCounts composition = new RankCounts();
+
+   /**
+    * Source de hasard utilisée pour mélanger et couper le paquet.
+    */
+   private RandomSource random = RandomSource.threadLocal();
+
+   /**
+    * Indique si le mélange est effectué à la demande, carte par carte.
+    */
+   private boolean lazyShuffle;
+
+   /**
+    * Indique si un mélange paresseux est en cours.
+    */
+   private boolean shufflePending;
+
+   /**
+    * Nombre de cartes du sommet déjà placées par le mélange paresseux en cours.
+    */
+   private int settled;
+
+   /**
+    * Procédure utilisée par {@link #shuffle()}, ou null pour le mélange uniforme.
+    */
+   private ShuffleProcedure shuffleProcedure;
+
+   /**
+    * Tableau de travail des procédures de mélange, réutilisé d'un mélange à l'autre.
+    */
+   private int[] scratch = new int[0];
+
+   /**
+    * Tampon des ordinaux de {@link #draw(int, Card[])}, réutilisé d'une pioche à l'autre.
+    * Distinct du tableau de travail des mélanges, qu'un remélange en cours de pioche peut utiliser.
+    */
+   private int[] drawn = new int[0];
 
    /**
     * Construit un nouveau paquet avec la liste de cartes fournie.
-    * 
+    * La liste est recopiée : la modifier ensuite n'a pas d'effet sur le paquet.
+    *
     * @param deck la liste des cartes constituant le paquet
+    * @throws IllegalArgumentException si une carte n'appartient pas à un jeu standard
     */
    public Deck(LinkedList<Card> deck){
-      this.deck = deck;
+      this.cards = new int[Math.max(deck.size(), DEFAULT_CAPACITY)];
+      for(Card c : deck){
+         int ordinal = ordinalOf(c);
+         this.cards[this.size++] = ordinal;
+         this.composition.add(ordinal);
+      }
+   }
+
+   /**
+    * Construit un nouveau paquet à partir des ordinaux de ses cartes.
+    * Le tableau est recopié.
+    *
+    * @param ordinals les ordinaux des cartes, du sommet vers le fond du paquet
+    */
+   public Deck(int[] ordinals){
+      this.cards = new int[Math.max(ordinals.length, 1)];
+      System.arraycopy(ordinals, 0, this.cards, 0, ordinals.length);
+      this.size = ordinals.length;
+      for(int ordinal : ordinals){
+         this.composition.add(ordinal);
+      }
+   }
+
+   /**
+    * Construit un paquet vide.
+    */
+   public Deck(){
+      this.cards = new int[DEFAULT_CAPACITY];
    }
 
    /**
     * Retourne la liste des cartes du paquet.
-    * 
-    * @return la LinkedList contenant toutes les cartes du paquet
+    * La liste retournée est une copie : la modifier n'a pas d'effet sur le paquet.
+    *
+    * @return une LinkedList contenant toutes les cartes du paquet
     */
    public LinkedList<Card> getDeck(){
-    return this.deck;
+      this.settle(this.size);
+      LinkedList<Card> list = new LinkedList<>();
+      for(int i = 0; i < this.size; i++){
+         list.add(Card.of(this.cards[this.physical(i)]));
+      }
+      return list;
+   }
+
+   /**
+    * Retourne le nombre de cartes du paquet.
+    *
+    * @return le nombre de cartes
+    */
+   public int size(){
+      return this.size;
+   }
+
+   /**
+    * Indique si le paquet est vide.
+    *
+    * @return true si le paquet ne contient aucune carte
+    */
+   public boolean isEmpty(){
+      return this.size == 0;
+   }
+
+   /**
+    * Retire toutes les cartes du paquet.
+    */
+   public void clear(){
+      this.head = 0;
+      this.size = 0;
+      this.composition.clear();
+      this.shufflePending = false;
+   }
+
+   /**
+    * Retourne le nombre de cartes d'un rang présentes dans le paquet.
+    *
+    * @param rank le numéro de rang (0 = "2", ..., 12 = "As")
+    * @return le nombre de cartes de ce rang
+    */
+   public int rankCount(int rank){
+      return this.composition.count(rank);
+   }
+
+   /**
+    * Retourne le nombre de cartes d'une valeur de blackjack présentes dans le paquet.
+    *
+    * @param value la valeur, entre 1 (As) et 10 (10 et figures)
+    * @return le nombre de cartes de cette valeur
+    */
+   public int valueCount(int value){
+      return this.composition.countValue(value);
    }
-   
+
+   /**
+    * Retourne le compte courant Hi-Lo des cartes sorties du paquet, en supposant
+    * que le paquet et les cartes sorties forment des jeux complets.
+    *
+    * @return le compte courant
+    */
+   public int runningCount(){
+      return -this.composition.hiLo();
+   }
+
+   /**
+    * Retourne le hachage de Zobrist de la composition du paquet (voir {@link Zobrist}).
+    * Il est tenu à jour à chaque tirage et à chaque ajout, et ne dépend pas de l'ordre
+    * des cartes : c'est une clé de cache bon marché pour « ce qui reste dans le paquet ».
+    *
+    * @return le hachage de 64 bits
+    */
+   public long compositionHash(){
+      return this.composition.zobristHash();
+   }
+
+   /**
+    * Retourne une copie de la composition du paquet.
+    * La modifier n'a pas d'effet sur le paquet.
+    *
+    * @return la composition du paquet par rang
+    */
+   public RankCounts getComposition(){
+      return new RankCounts(this.composition);
+   }
+
+   /**
+    * Retourne la source de hasard du paquet.
+    *
+    * @return la source utilisée pour mélanger et couper
+    */
+   public RandomSource getRandom(){
+      return this.random;
+   }
+
+   /**
+    * Modifie la source de hasard du paquet.
+    * Par défaut, le générateur du thread courant est utilisé.
+    *
+    * @param random la source à utiliser pour mélanger et couper
+    */
+   public void setRandom(RandomSource random){
+      this.random = random;
+   }
+
+   /**
+    * Indique si le paquet est en mode de mélange paresseux.
+    *
+    * @return true si le mélange est effectué à la demande
+    */
+   public boolean isLazyShuffle(){
+      return this.lazyShuffle;
+   }
+
+   /**
+    * Active ou désactive le mélange paresseux.
+    * Lorsqu'il est actif, {@link #shuffle()} est immédiat et chaque pioche choisit sa carte
+    * au hasard parmi les cartes restantes : l'ordre obtenu suit la même loi qu'un mélange
+    * complet, mais seules les cartes effectivement piochées coûtent un tirage aléatoire.
+    * Le désactiver termine le mélange en cours.
+    *
+    * @param lazyShuffle true pour mélanger à la demande
+    */
+   public void setLazyShuffle(boolean lazyShuffle){
+      if(!lazyShuffle){
+         this.settle(this.size);
+      }
+      this.lazyShuffle = lazyShuffle;
+   }
+
+   /**
+    * Retourne la procédure de mélange utilisée par {@link #shuffle()}.
+    *
+    * @return la procédure, ou null pour le mélange uniforme
+    */
+   public ShuffleProcedure getShuffleProcedure(){
+      return this.shuffleProcedure;
+   }
+
+   /**
+    * Choisit la procédure de mélange utilisée par {@link #shuffle()}.
+    * Une procédure autre que null remplace le mélange uniforme, y compris en mode paresseux.
+    *
+    * @param shuffleProcedure la procédure, ou null pour revenir au mélange uniforme
+    */
+   public void setShuffleProcedure(ShuffleProcedure shuffleProcedure){
+      this.shuffleProcedure = shuffleProcedure;
+   }
+
+   /**
+    * Mélange le paquet selon une procédure de mélange physique.
+    * Les cartes sont d'abord ramenées au début du tableau, puis la procédure travaille
+    * directement dessus, sans allocation une fois le tableau de travail dimensionné.
+    *
+    * @param procedure la procédure à appliquer
+    */
+   public void shuffle(ShuffleProcedure procedure){
+      this.settle(this.size);
+      if(this.scratch.length < this.cards.length){
+         this.scratch = new int[this.cards.length];
+      }
+      if(this.head != 0){
+         for(int i = 0; i < this.size; i++){
+            this.scratch[i] = this.cards[this.physical(i)];
+         }
+         System.arraycopy(this.scratch, 0, this.cards, 0, this.size);
+         this.head = 0;
+      }
+      procedure.apply(this.cards, this.size, this.scratch, this.random);
+   }
+
    /**
     * Mélange aléatoirement les cartes du paquet.
-    * Utilise Collections.shuffle() pour un mélange uniforme.
+    * Effectue un mélange de Fisher-Yates uniforme, directement sur le tableau ;
+    * en mode paresseux, le mélange est seulement amorcé et se poursuit à chaque pioche.
+    * Si une procédure de mélange a été choisie, c'est elle qui est appliquée.
     */
    public void shuffle(){
-      Collections.shuffle(this.deck);
+      if(this.shuffleProcedure != null){
+         this.shuffle(this.shuffleProcedure);
+         return;
+      }
+      if(this.lazyShuffle){
+         this.shufflePending = true;
+         this.settled = 0;
+         return;
+      }
+      RandomSource rand = this.random;
+      for(int i = this.size - 1; i > 0; i--){
+         int j = rand.nextInt(i + 1);
+         this.swap(i, j);
+      }
    }
 
    /**
     * Retourne la carte située à l'index spécifié sans la retirer du paquet.
-    * 
+    *
     * @param index la position de la carte dans le paquet (commence à 0)
     * @return la carte à la position demandée
     */
    public Card getCardToIndex(int index){
-       return this.deck.get(index); 
+      return Card.of(this.ordinalAt(index));
+   }
+
+   /**
+    * Retourne l'ordinal de la carte située à l'index spécifié sans la retirer du paquet.
+    *
+    * @param index la position de la carte dans le paquet (commence à 0)
+    * @return l'ordinal de la carte à la position demandée
+    */
+   public int ordinalAt(int index){
+      this.checkIndex(index);
+      this.settle(index + 1);
+      return this.cards[this.physical(index)];
+   }
+
+   /**
+    * Retourne la première carte du paquet sans la retirer.
+    *
+    * @return la carte au sommet du paquet
+    */
+   public Card peek(){
+      return Card.of(this.peekOrdinal());
+   }
+
+   /**
+    * Retourne l'ordinal de la première carte du paquet sans la retirer.
+    *
+    * @return l'ordinal de la carte au sommet du paquet
+    */
+   public int peekOrdinal(){
+      if(this.size == 0){
+         throw new NoSuchElementException();
+      }
+      this.settle(1);
+      return this.cards[this.head];
    }
 
    /**
     * Pioche et retire la première carte du paquet.
-    * 
+    *
     * @return la carte retirée du sommet du paquet
     */
    public Card draw(){
-      Card c = this.deck.pop();
-      return c;
+      return Card.of(this.drawOrdinal());
+   }
 
+   /**
+    * Pioche et retire la première carte du paquet, sous forme d'ordinal.
+    *
+    * @return l'ordinal de la carte retirée du sommet du paquet
+    */
+   public int drawOrdinal(){
+      if(this.size == 0){
+         throw new NoSuchElementException();
+      }
+      this.settle(1);
+      int ordinal = this.cards[this.head];
+      this.head = this.physical(1);
+      this.size--;
+      this.settled--;
+      this.composition.remove(ordinal);
+      return ordinal;
+   }
+
+   /**
+    * Pioche et retire les n premières cartes du paquet en une seule opération.
+    * La carte du sommet est placée en out[0], la suivante en out[1], etc.
+    *
+    * @param n le nombre de cartes à piocher
+    * @param out le tableau recevant les ordinaux, de taille au moins n
+    * @throws NoSuchElementException si le paquet contient moins de n cartes
+    */
+   public void draw(int n, int[] out){
+      this.draw(n, out, 0);
+   }
+
+   /**
+    * Pioche et retire les n premières cartes du paquet en une seule opération.
+    * La carte du sommet est placée en out[offset], la suivante en out[offset + 1], etc.
+    *
+    * @param n le nombre de cartes à piocher
+    * @param out le tableau recevant les ordinaux, de taille au moins offset + n
+    * @param offset l'indice de out recevant la carte du sommet
+    * @throws NoSuchElementException si le paquet contient moins de n cartes
+    */
+   public void draw(int n, int[] out, int offset){
+      if(n > this.size){
+         throw new NoSuchElementException();
+      }
+      this.settle(n);
+      int first = Math.min(n, this.cards.length - this.head);
+      System.arraycopy(this.cards, this.head, out, offset, first);
+      System.arraycopy(this.cards, 0, out, offset + first, n - first);
+      for(int i = offset; i < offset + n; i++){
+         this.composition.remove(out[i]);
+      }
+      this.head = this.wrap(n);
+      this.size -= n;
+      this.settled -= n;
+   }
+
+   /**
+    * Pioche et retire les n premières cartes du paquet en une seule opération.
+    * La carte du sommet est placée en out[0], la suivante en out[1], etc.
+    *
+    * @param n le nombre de cartes à piocher
+    * @param out le tableau recevant les cartes, de taille au moins n
+    * @throws NoSuchElementException si le paquet contient moins de n cartes
+    */
+   public void draw(int n, Card[] out){
+      if(this.drawn.length < n){
+         this.drawn = new int[n];
+      }
+      int[] ordinals = this.drawn;
+      this.draw(n, ordinals);
+      for(int i = 0; i < n; i++){
+         out[i] = Card.of(ordinals[i]);
+      }
    }
 
    /**
     * Retourne une représentation textuelle du paquet.
-    * 
+    *
     * @return la liste des cartes sous forme de chaîne
     */
    @Override
    public String toString(){
-    return this.deck.toString();
+      this.settle(this.size);
+      StringBuilder sb = new StringBuilder("[");
+      for(int i = 0; i < this.size; i++){
+         if(i > 0){
+            sb.append(", ");
+         }
+         sb.append(Card.of(this.cards[this.physical(i)]));
+      }
+      return sb.append(']').toString();
    }
 
    /**
     * Supprime la carte située à l'index spécifié du paquet.
-    * 
+    * Les cartes du côté le plus court sont décalées d'une position.
+    *
     * @param i l'index de la carte à supprimer
     */
    public void deleteCard(int i){
-       this.deck.remove(i);
+      this.checkIndex(i);
+      this.settle(i + 1);
+      this.composition.remove(this.cards[this.physical(i)]);
+      if(i < this.size / 2){
+         for(int k = i; k > 0; k--){
+            this.cards[this.physical(k)] = this.cards[this.physical(k - 1)];
+         }
+         this.head = this.physical(1);
+      }else{
+         for(int k = i; k < this.size - 1; k++){
+            this.cards[this.physical(k)] = this.cards[this.physical(k + 1)];
+         }
+      }
+      this.size--;
+      this.settled--;
    }
 
    /**
-    * Ajoute une carte au sommet du paquet.
-    * 
+    * Ajoute une carte au fond du paquet.
+    *
     * @param c la carte à ajouter
+    * @throws IllegalArgumentException si la carte n'appartient pas à un jeu standard
     */
    public void addCard(Card c){
-      this.deck.add(c);
+      this.addOrdinal(ordinalOf(c));
+   }
+
+   /**
+    * Ajoute une carte au fond du paquet, à partir de son ordinal.
+    *
+    * @param ordinal l'ordinal de la carte à ajouter
+    */
+   public void addOrdinal(int ordinal){
+      this.settle(this.size);
+      this.append(ordinal);
+   }
+
+   /**
+    * Ajoute plusieurs cartes au fond du paquet, dans l'ordre du tableau.
+    *
+    * @param ordinals les ordinaux des cartes à ajouter
+    * @param n le nombre de cartes à prendre au début du tableau
+    */
+   public void addOrdinals(int[] ordinals, int n){
+      this.settle(this.size);
+      while(this.size + n > this.cards.length){
+         this.grow();
+      }
+      for(int i = 0; i < n; i++){
+         int ordinal = ordinals[i];
+         this.cards[this.physical(this.size + i)] = ordinal;
+         this.composition.add(ordinal);
+      }
+      this.size += n;
+   }
+
+   /**
+    * Ajoute une carte à une position aléatoire parmi les cartes qui n'ont pas encore été
+    * placées par le mélange paresseux, en temps constant : la carte est posée au fond et
+    * un mélange paresseux est amorcé s'il n'y en a pas en cours. La position de la carte
+    * n'est tirée qu'au moment où elle est atteinte par la pioche.
+    * Destiné aux paquets dont l'ordre est déjà uniformément aléatoire, comme un mélangeur continu.
+    *
+    * @param ordinal l'ordinal de la carte à insérer
+    */
+   protected void addOrdinalAtRandom(int ordinal){
+      if(!this.shufflePending){
+         this.shufflePending = true;
+         this.settled = 0;
+      }
+      this.append(ordinal);
    }
 
    /**
@@ -93,22 +559,154 @@ public class Deck{
     * Divise le paquet en deux parties à un point aléatoire et inverse leur ordre.
     * La coupe est effectuée uniquement si le paquet contient au moins 4 cartes.
     * Le point de coupe est choisi entre la position 2 et (taille - 2).
+    * Juste après un mélange paresseux, la coupe est sans effet : couper un ordre
+    * uniformément aléatoire donne un ordre qui suit la même loi.
     */
    public void cut(){
-      Random rand = new Random();
       // seuil de coupe min 4 Cards
-      if(this.deck.size() < 4){
+      if(this.size < 4){
         return ;
       }
-      int cutIndex = rand.nextInt(this.deck.size()-4)+2;
-      LinkedList<Card> part1 = new LinkedList<>(this.deck.subList(0, cutIndex));
-      LinkedList<Card> part2 = new LinkedList<>(this.deck.subList(cutIndex,this.deck.size()));
-      this.deck.clear();
-      this.deck.addAll(part2);
-      this.deck.addAll(part1);
-      
+      if(this.shufflePending && this.settled == 0){
+         return;
+      }
+      this.settle(this.size);
+      int cutIndex = this.random.nextInt(this.size - 4) + 2;
+      this.rotate(cutIndex);
+   }
+
+   /**
+    * Fait passer les {@code k} premières cartes sous le paquet.
+    * Sur un paquet plein la rotation ne déplace que le curseur de tête ;
+    * sinon seules les cartes du plus petit des deux blocs sont déplacées.
+    *
+    * @param k le nombre de cartes à passer sous le paquet
+    */
+   private void rotate(int k){
+      if(this.size == this.cards.length){
+         this.head = this.physical(k);
+      }
+      else if(k <= this.size - k){
+         for(int i = 0; i < k; i++){
+            this.cards[this.wrap(this.size + i)] = this.cards[this.physical(i)];
+         }
+         this.head = this.physical(k);
+      }
+      else{
+         int tail = this.size - k;
+         for(int i = 1; i <= tail; i++){
+            this.cards[this.wrap(-i)] = this.cards[this.physical(this.size - i)];
+         }
+         this.head = this.physical(-tail);
+      }
+   }
+
+   /**
+    * Abandonne le mélange paresseux en cours : les cartes restantes gardent leur ordre actuel.
+    * Réservé aux sous-classes qui remélangent entièrement le paquet juste après,
+    * pour ne pas payer un mélange dont le résultat serait aussitôt perdu.
+    */
+   protected void abandonPendingShuffle(){
+      this.shufflePending = false;
+   }
+
+   /**
+    * Poursuit le mélange paresseux en cours jusqu'à ce que les n premières cartes soient placées.
+    * Chaque étape choisit uniformément la carte suivante parmi celles qui ne sont pas encore placées
+    * (Fisher-Yates dans le sens de la pioche). Le mélange est terminé lorsque toutes les cartes le sont.
+    *
+    * @param n le nombre de cartes du sommet qui doivent être placées
+    */
+   private void settle(int n){
+      if(!this.shufflePending || n <= this.settled){
+         return;
+      }
+      RandomSource rand = this.random;
+      int limit = Math.min(n, this.size - 1);
+      for(int i = this.settled; i < limit; i++){
+         this.swap(i, i + rand.nextInt(this.size - i));
+      }
+      this.settled = n;
+      if(n >= this.size - 1){
+         this.shufflePending = false;
+      }
+   }
+
+   private void append(int ordinal){
+      if(this.size == this.cards.length){
+         this.grow();
+      }
+      this.cards[this.physical(this.size)] = ordinal;
+      this.size++;
+      this.composition.add(ordinal);
+   }
+
+   /**
+    * Double la capacité du tableau en replaçant le sommet en position 0.
+    */
+   private void grow(){
+      int[] bigger = new int[Math.max(this.cards.length * 2, DEFAULT_CAPACITY)];
+      for(int i = 0; i < this.size; i++){
+         bigger[i] = this.cards[this.physical(i)];
+      }
+      this.cards = bigger;
+      this.head = 0;
+   }
+
+   /**
+    * Échange deux cartes du paquet.
+    *
+    * @param i la position logique de la première carte
+    * @param j la position logique de la seconde carte
+    */
+   private void swap(int i, int j){
+      int pi = this.physical(i);
+      int pj = this.physical(j);
+      int tmp = this.cards[pi];
+      this.cards[pi] = this.cards[pj];
+      this.cards[pj] = tmp;
+   }
+
+   /**
+    * Convertit une position logique (depuis le sommet) en position dans le tableau.
+    *
+    * @param index la position logique, éventuellement négative
+    * @return la position physique correspondante
+    */
+   private int physical(int index){
+      int p = this.head + index;
+      int capacity = this.cards.length;
+      if(p >= capacity){
+         p -= capacity;
+      }
+      else if(p < 0){
+         p += capacity;
+      }
+      return p;
+   }
 
+   /**
+    * Convertit une position logique quelconque en position dans le tableau.
+    *
+    * @param index la position logique
+    * @return la position physique correspondante
+    */
+   private int wrap(int index){
+      return Math.floorMod(this.head + index, this.cards.length);
+   }
+
+   private void checkIndex(int index){
+      if(index < 0 || index >= this.size){
+         throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+      }
+   }
+
+   private static int ordinalOf(Card c){
+      int ordinal = c.getOrdinal();
+      if(ordinal < 0){
+         throw new IllegalArgumentException("Carte hors jeu standard : " + c);
+      }
+      return ordinal;
    }
 
-    
-}
\ No newline at end of file
+}
@@ -0,0 +1,266 @@
+package card.game;
+
+import java.util.Arrays;
+
+/**
+ * Composition d'un ensemble de cartes par rang : nombre de cartes de chaque rang, quelle que
+ * soit leur couleur. Contrairement à {@link CardMask}, un même rang peut compter plus de
+ * quatre cartes, ce qui convient aux sabots de plusieurs jeux.
+ *
+ * Les mises à jour et les lectures se font en temps constant ; seul le total des valeurs
+ * est tenu à jour en plus des compteurs, pour éviter de reparcourir les rangs.
+ */
+public class RankCounts {
+    /**
+     * Rang des As.
+     */
+    private static final int ACE_RANK = Card.RANK_COUNT - 1;
+
+    /**
+     * Valeur de chaque rang dans le comptage Hi-Lo : +1 pour 2 à 6, 0 pour 7 à 9, -1 pour 10 à As.
+     */
+    private static final int[] HI_LO = {1, 1, 1, 1, 1, 0, 0, 0, -1, -1, -1, -1, -1};
+
+    /**
+     * Nombre de cartes par rang (0 = "2", ..., 12 = "As").
+     */
+    private final int[] counts;
+
+    /**
+     * Nombre total de cartes.
+     */
+    private int size;
+
+    /**
+     * Somme des valeurs des cartes, chaque As comptant pour 1.
+     */
+    private int hardTotal;
+
+    /**
+     * Somme des valeurs Hi-Lo des cartes.
+     */
+    private int hiLo;
+
+    /**
+     * Hachage de Zobrist de la composition (voir {@link Zobrist}).
+     */
+    private long zobristHash;
+
+    /**
+     * Crée une composition vide.
+     */
+    public RankCounts(){
+        this.counts = new int[Card.RANK_COUNT];
+    }
+
+    /**
+     * Crée une copie d'une composition.
+     *
+     * @param other la composition à copier
+     */
+    public RankCounts(RankCounts other){
+        this.counts = other.counts.clone();
+        this.size = other.size;
+        this.hardTotal = other.hardTotal;
+        this.hiLo = other.hiLo;
+        this.zobristHash = other.zobristHash;
+    }
+
+    /**
+     * Construit la composition des cartes d'un paquet.
+     *
+     * @param deck le paquet
+     * @return la composition du paquet
+     */
+    public static RankCounts of(Deck deck){
+        RankCounts result = new RankCounts();
+        for(int i = 0; i < deck.size(); i++){
+            result.add(deck.ordinalAt(i));
+        }
+        return result;
+    }
+
+    /**
+     * Construit la composition de plusieurs jeux complets de 52 cartes.
+     *
+     * @param numberOfDecks le nombre de jeux
+     * @return la composition des jeux
+     */
+    public static RankCounts ofDecks(int numberOfDecks){
+        RankCounts result = new RankCounts();
+        for(int rank = 0; rank < Card.RANK_COUNT; rank++){
+            result.addRank(rank, Card.COLOR_COUNT * numberOfDecks);
+        }
+        return result;
+    }
+
+    /**
+     * Retourne la valeur d'un rang dans le comptage Hi-Lo.
+     *
+     * @param rank le numéro de rang (0 = "2", ..., 12 = "As")
+     * @return +1 pour 2 à 6, 0 pour 7 à 9, -1 pour 10 à As
+     */
+    public static int hiLoTag(int rank){
+        return HI_LO[rank];
+    }
+
+    /**
+     * Ajoute une carte.
+     *
+     * @param ordinal l'ordinal de la carte
+     */
+    public void add(int ordinal){
+        addRank(Card.rankOf(ordinal), 1);
+    }
+
+    /**
+     * Retire une carte.
+     *
+     * @param ordinal l'ordinal de la carte
+     * @throws IllegalStateException si aucune carte de ce rang n'est présente
+     */
+    public void remove(int ordinal){
+        removeRank(Card.rankOf(ordinal));
+    }
+
+    /**
+     * Ajoute plusieurs cartes d'un même rang.
+     *
+     * @param rank le numéro de rang
+     * @param count le nombre de cartes à ajouter
+     */
+    public void addRank(int rank, int count){
+        for(int k = 1; k <= count; k++){
+            this.zobristHash ^= Zobrist.step(rank, this.counts[rank] + k);
+        }
+        this.counts[rank] += count;
+        this.size += count;
+        this.hardTotal += count * Card.rankValue(rank);
+        this.hiLo += count * HI_LO[rank];
+    }
+
+    /**
+     * Retire une carte d'un rang.
+     *
+     * @param rank le numéro de rang
+     * @throws IllegalStateException si aucune carte de ce rang n'est présente
+     */
+    public void removeRank(int rank){
+        if(this.counts[rank] == 0){
+            throw new IllegalStateException("Aucune carte de rang " + rank);
+        }
+        this.zobristHash ^= Zobrist.step(rank, this.counts[rank]);
+        this.counts[rank]--;
+        this.size--;
+        this.hardTotal -= Card.rankValue(rank);
+        this.hiLo -= HI_LO[rank];
+    }
+
+    /**
+     * Vide la composition.
+     */
+    public void clear(){
+        Arrays.fill(this.counts, 0);
+        this.size = 0;
+        this.hardTotal = 0;
+        this.hiLo = 0;
+        this.zobristHash = 0;
+    }
+
+    /**
+     * Retourne le nombre de cartes d'un rang.
+     *
+     * @param rank le numéro de rang
+     * @return le nombre de cartes de ce rang
+     */
+    public int count(int rank){
+        return this.counts[rank];
+    }
+
+    /**
+     * Retourne le nombre de cartes d'une valeur de blackjack (1 pour l'As, 10 pour le 10 et les figures).
+     *
+     * @param value la valeur, entre 1 et 10
+     * @return le nombre de cartes de cette valeur
+     */
+    public int countValue(int value){
+        if(value == 1){
+            return this.counts[ACE_RANK];
+        }
+        if(value == 10){
+            return this.counts[8] + this.counts[9] + this.counts[10] + this.counts[11];
+        }
+        return this.counts[value - 2];
+    }
+
+    /**
+     * Retourne le nombre total de cartes.
+     *
+     * @return le nombre de cartes
+     */
+    public int size(){
+        return this.size;
+    }
+
+    /**
+     * Indique si la composition est vide.
+     *
+     * @return true si aucune carte n'est présente
+     */
+    public boolean isEmpty(){
+        return this.size == 0;
+    }
+
+    /**
+     * Retourne le total des cartes, chaque As comptant pour 1.
+     *
+     * @return le total dur
+     */
+    public int hardTotal(){
+        return this.hardTotal;
+    }
+
+    /**
+     * Retourne la somme des valeurs Hi-Lo des cartes. Un jeu complet est équilibré (somme nulle) :
+     * pour les cartes restantes d'un sabot, l'opposé de cette somme est donc le compte courant
+     * des cartes déjà sorties.
+     *
+     * @return la somme des valeurs Hi-Lo
+     */
+    public int hiLo(){
+        return this.hiLo;
+    }
+
+    /**
+     * Retourne le hachage de Zobrist de la composition, tenu à jour à chaque ajout et retrait.
+     * Deux compositions égales ont le même hachage ; la composition vide a le hachage 0.
+     *
+     * @return le hachage de 64 bits
+     */
+    public long zobristHash(){
+        return this.zobristHash;
+    }
+
+    /**
+     * Retourne le meilleur total de blackjack : un As compte pour 11 si le total ne dépasse pas 21.
+     *
+     * @return le meilleur total
+     */
+    public int total(){
+        return isSoft() ? this.hardTotal + 10 : this.hardTotal;
+    }
+
+    /**
+     * Indique si le total est souple (un As compté pour 11).
+     *
+     * @return true si le total est souple
+     */
+    public boolean isSoft(){
+        return this.counts[ACE_RANK] > 0 && this.hardTotal <= 11;
+    }
+
+    @Override
+    public String toString(){
+        return Arrays.toString(this.counts);
+    }
+}
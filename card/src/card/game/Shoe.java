@@ -0,0 +1,307 @@
+package card.game;
+
+import java.util.NoSuchElementException;
+
+import card.util.FactoryCard;
+import card.util.RandomSource;
+
+/**
+ * Représente un sabot de casino contenant un ou plusieurs jeux de 52 cartes.
+ * Le sabot est mélangé et coupé une seule fois, puis une carte de coupe est placée
+ * à une profondeur donnée (la pénétration). Les cartes jouées sont rangées dans un
+ * bac de défausse et ne reviennent dans le sabot qu'au prochain mélange, déclenché
+ * lorsque la carte de coupe est sortie.
+ */
+public class Shoe extends Deck{
+    /**
+     * Nombre minimal de jeux dans un sabot.
+     */
+    public static final int MIN_DECKS = 1;
+
+    /**
+     * Nombre maximal de jeux dans un sabot.
+     */
+    public static final int MAX_DECKS = 8;
+
+    /**
+     * Pénétration par défaut : les trois quarts du sabot sont distribués avant de remélanger.
+     */
+    public static final double DEFAULT_PENETRATION = 0.75;
+
+    /**
+     * Nombre de jeux de 52 cartes contenus dans le sabot.
+     */
+    private final int numberOfDecks;
+
+    /**
+     * Proportion du sabot distribuée avant la sortie de la carte de coupe.
+     */
+    private final double penetration;
+
+    /**
+     * Bac de défausse recevant les cartes jouées.
+     */
+    private final Deck discards = new Deck();
+
+    /**
+     * Nombre de cartes restantes dans le sabot au moment où la carte de coupe sort.
+     */
+    private int cutCardPosition;
+
+    /**
+     * Indique si la carte de coupe est sortie depuis le dernier mélange.
+     */
+    private boolean cutCardReached;
+
+    /**
+     * Nombre de mélanges effectués depuis la création du sabot.
+     */
+    private int shuffleCount;
+
+    /**
+     * Tampon réutilisé pour ramener la défausse dans le sabot.
+     */
+    private int[] transfer = new int[0];
+
+    /**
+     * Construit un sabot mélangé et coupé.
+     *
+     * @param numberOfDecks le nombre de jeux de 52 cartes (entre 1 et 8)
+     * @param penetration la proportion du sabot distribuée avant de remélanger (entre 0 exclu et 1 inclus)
+     * @param random la source de hasard utilisée pour tous les mélanges et coupes du sabot
+     * @throws IllegalArgumentException si l'un des paramètres est hors limites
+     */
+    public Shoe(int numberOfDecks, double penetration, RandomSource random){
+        this(numberOfDecks, penetration, random, false);
+    }
+
+    /**
+     * Construit un sabot, en choisissant le mode de mélange avant le premier mélange.
+     * En mode paresseux, ce premier mélange est seulement amorcé (voir {@link Deck#setLazyShuffle(boolean)}).
+     *
+     * @param numberOfDecks le nombre de jeux de 52 cartes (entre 1 et 8)
+     * @param penetration la proportion du sabot distribuée avant de remélanger (entre 0 exclu et 1 inclus)
+     * @param random la source de hasard utilisée pour tous les mélanges et coupes du sabot
+     * @param lazyShuffle true pour mélanger à la demande
+     * @throws IllegalArgumentException si l'un des paramètres est hors limites
+     */
+    protected Shoe(int numberOfDecks, double penetration, RandomSource random, boolean lazyShuffle){
+        super(ordinals(numberOfDecks));
+        if(!(penetration > 0 && penetration <= 1)){
+            throw new IllegalArgumentException("La pénétration doit être comprise entre 0 et 1 : " + penetration);
+        }
+        this.numberOfDecks = numberOfDecks;
+        this.penetration = penetration;
+        this.setRandom(random);
+        this.setLazyShuffle(lazyShuffle);
+        this.reshuffle();
+    }
+
+    /**
+     * Construit un sabot mélangé et coupé avec le générateur du thread courant.
+     *
+     * @param numberOfDecks le nombre de jeux de 52 cartes (entre 1 et 8)
+     * @param penetration la proportion du sabot distribuée avant de remélanger (entre 0 exclu et 1 inclus)
+     * @throws IllegalArgumentException si l'un des paramètres est hors limites
+     */
+    public Shoe(int numberOfDecks, double penetration){
+        this(numberOfDecks, penetration, RandomSource.threadLocal());
+    }
+
+    /**
+     * Construit un sabot mélangé et coupé, avec la pénétration par défaut.
+     *
+     * @param numberOfDecks le nombre de jeux de 52 cartes (entre 1 et 8)
+     */
+    public Shoe(int numberOfDecks){
+        this(numberOfDecks, DEFAULT_PENETRATION);
+    }
+
+    /**
+     * Retourne le nombre de jeux de 52 cartes du sabot.
+     *
+     * @return le nombre de jeux
+     */
+    public int getNumberOfDecks(){
+        return this.numberOfDecks;
+    }
+
+    /**
+     * Retourne la pénétration du sabot.
+     *
+     * @return la proportion du sabot distribuée avant de remélanger
+     */
+    public double getPenetration(){
+        return this.penetration;
+    }
+
+    /**
+     * Retourne le nombre total de cartes du sabot (sabot, défausse et cartes en jeu).
+     *
+     * @return le nombre de cartes de tous les jeux réunis
+     */
+    public int getTotalCards(){
+        return this.numberOfDecks * Card.CARD_COUNT;
+    }
+
+    /**
+     * Retourne le bac de défausse.
+     *
+     * @return le paquet des cartes défaussées depuis le dernier mélange
+     */
+    public Deck getDiscards(){
+        return this.discards;
+    }
+
+    /**
+     * Retourne le nombre de mélanges effectués depuis la création du sabot.
+     *
+     * @return le nombre de mélanges
+     */
+    public int getShuffleCount(){
+        return this.shuffleCount;
+    }
+
+    /**
+     * Indique si la carte de coupe est sortie et qu'un mélange est dû.
+     *
+     * @return true si le sabot doit être remélangé avant la prochaine manche
+     */
+    public boolean needsReshuffle(){
+        return this.cutCardReached;
+    }
+
+    /**
+     * Pioche la première carte du sabot.
+     * Si le sabot est vide en cours de manche, la défausse est remélangée d'abord.
+     * Signale la sortie de la carte de coupe lorsque la pénétration est atteinte.
+     *
+     * @return l'ordinal de la carte piochée
+     */
+    @Override
+    public int drawOrdinal(){
+        if(this.isEmpty()){
+            this.reshuffle();
+        }
+        int ordinal = super.drawOrdinal();
+        if(this.size() <= this.cutCardPosition){
+            this.cutCardReached = true;
+        }
+        return ordinal;
+    }
+
+    /**
+     * Pioche n cartes en une seule opération. Si le sabot s'épuise en cours de route,
+     * la défausse est remélangée et la pioche continue, comme avec {@link #drawOrdinal()}.
+     *
+     * @param n le nombre de cartes à piocher
+     * @param out le tableau recevant les ordinaux, de taille au moins offset + n
+     * @param offset l'indice de out recevant la première carte
+     * @throws NoSuchElementException si le sabot et la défausse réunis ne suffisent pas
+     */
+    @Override
+    public void draw(int n, int[] out, int offset){
+        int done = 0;
+        while(done < n){
+            if(this.isEmpty()){
+                this.reshuffle();
+                if(this.isEmpty()){
+                    throw new NoSuchElementException();
+                }
+            }
+            int count = Math.min(n - done, this.size());
+            super.draw(count, out, offset + done);
+            done += count;
+        }
+        if(this.size() <= this.cutCardPosition){
+            this.cutCardReached = true;
+        }
+    }
+
+    /**
+     * Range une carte jouée dans le bac de défausse.
+     *
+     * @param c la carte à défausser
+     */
+    public void discard(Card c){
+        this.discards.addCard(c);
+    }
+
+    /**
+     * Range une carte jouée dans le bac de défausse, à partir de son ordinal.
+     *
+     * @param ordinal l'ordinal de la carte à défausser
+     */
+    public void discardOrdinal(int ordinal){
+        this.discards.addOrdinal(ordinal);
+    }
+
+    /**
+     * Remélange le sabot si la carte de coupe est sortie.
+     * À appeler entre deux manches.
+     *
+     * @return true si un mélange a été effectué
+     */
+    public boolean reshuffleIfNeeded(){
+        if(!this.cutCardReached){
+            return false;
+        }
+        this.reshuffle();
+        return true;
+    }
+
+    /**
+     * Reconstitue le sabot complet dans l'ordre de fabrication, vide la défausse, puis mélange.
+     * Le résultat ne dépend que de la source de hasard, ce qui permet de rejouer une partie
+     * à partir d'une graine. À appeler entre deux manches, lorsqu'aucune carte n'est en jeu.
+     */
+    public void reset(){
+        this.clear();
+        this.discards.clear();
+        int[] deck = FactoryCard.ordinals52();
+        for(int i = 0; i < this.numberOfDecks; i++){
+            for(int ordinal : deck){
+                this.addOrdinal(ordinal);
+            }
+        }
+        this.reshuffle();
+    }
+
+    /**
+     * Replace la défausse dans le sabot, mélange, coupe et replace la carte de coupe.
+     * Les cartes encore en jeu ne sont pas concernées : elles rejoindront la défausse.
+     */
+    public void reshuffle(){
+        this.abandonPendingShuffle();
+        int n = this.discards.size();
+        if(this.transfer.length < n){
+            this.transfer = new int[n];
+        }
+        this.discards.draw(n, this.transfer);
+        this.addOrdinals(this.transfer, n);
+        this.shuffle();
+        this.cut();
+        int dealt = (int) Math.round(this.size() * this.penetration);
+        this.cutCardPosition = this.size() - dealt;
+        this.cutCardReached = false;
+        this.shuffleCount++;
+    }
+
+    /**
+     * Construit les ordinaux d'un sabot de plusieurs jeux de 52 cartes.
+     *
+     * @param numberOfDecks le nombre de jeux
+     * @return les ordinaux de toutes les cartes, jeu après jeu
+     */
+    private static int[] ordinals(int numberOfDecks){
+        if(numberOfDecks < MIN_DECKS || numberOfDecks > MAX_DECKS){
+            throw new IllegalArgumentException("Le nombre de jeux doit être compris entre " + MIN_DECKS + " et " + MAX_DECKS + " : " + numberOfDecks);
+        }
+        int[] deck = FactoryCard.ordinals52();
+        int[] ordinals = new int[deck.length * numberOfDecks];
+        for(int i = 0; i < numberOfDecks; i++){
+            System.arraycopy(deck, 0, ordinals, i * deck.length, deck.length);
+        }
+        return ordinals;
+    }
+}
@@ -0,0 +1,261 @@
+package card.game;
+
+import java.util.Arrays;
+
+import card.util.RandomSource;
+
+/**
+ * Procédure de mélange physique appliquée à un paquet : modèle d'un geste de croupier
+ * plutôt que mélange parfaitement uniforme. Les procédures travaillent directement sur
+ * le tableau des ordinaux, avec un tableau de travail fourni par le paquet, et ne font
+ * aucune allocation.
+ *
+ * Procédures proposées :
+ * - {@link #uniform()} : mélange de Fisher-Yates, parfaitement uniforme
+ * - {@link #riffle()} : mélange américain selon le modèle de Gilbert-Shannon-Reeds
+ * - {@link #strip(int)} : mélange par paquets, en retirant de fines tranches du dessus
+ * - {@link #box()} : le paquet est coupé en quatre blocs reposés dans l'ordre inverse
+ * - {@link #cut()} : une coupe simple
+ * - {@link #sequence(ShuffleProcedure...)} et {@link #repeat(ShuffleProcedure, int)} :
+ *   enchaînement de procédures, pour reproduire les habitudes d'un croupier
+ *
+ * Voir {@link Deck#shuffle(ShuffleProcedure)} et {@link Deck#setShuffleProcedure(ShuffleProcedure)}.
+ */
+public abstract class ShuffleProcedure {
+
+    /**
+     * Mélange les n premières cases d'un tableau d'ordinaux.
+     *
+     * @param cards les ordinaux, du sommet vers le fond du paquet
+     * @param n le nombre de cartes à mélanger
+     * @param scratch un tableau de travail d'au moins n cases, dont le contenu est sans importance
+     * @param random la source de hasard
+     */
+    public abstract void apply(int[] cards, int n, int[] scratch, RandomSource random);
+
+    /**
+     * Retourne le mélange de Fisher-Yates uniforme.
+     *
+     * @return la procédure de mélange uniforme
+     */
+    public static ShuffleProcedure uniform(){
+        return Uniform.INSTANCE;
+    }
+
+    /**
+     * Retourne le mélange américain (riffle) selon le modèle de Gilbert-Shannon-Reeds :
+     * le paquet est coupé en deux selon une loi binomiale, puis les cartes tombent de l'une
+     * ou l'autre moitié avec une probabilité proportionnelle à sa taille restante.
+     * Il faut environ sept riffles pour qu'un jeu de 52 cartes soit proche d'un ordre uniforme.
+     *
+     * @return la procédure de riffle
+     */
+    public static ShuffleProcedure riffle(){
+        return Riffle.INSTANCE;
+    }
+
+    /**
+     * Retourne le mélange par paquets (strip) : des tranches de taille aléatoire sont retirées
+     * du dessus et empilées, ce qui inverse l'ordre des tranches sans changer l'ordre à l'intérieur.
+     *
+     * @param packets le nombre moyen de tranches (au moins 2)
+     * @return la procédure de strip
+     * @throws IllegalArgumentException si packets est inférieur à 2
+     */
+    public static ShuffleProcedure strip(int packets){
+        if(packets < 2){
+            throw new IllegalArgumentException("Il faut au moins 2 tranches : " + packets);
+        }
+        return new Packets(packets, true);
+    }
+
+    /**
+     * Retourne le box shuffle : le paquet est coupé en quatre blocs de tailles proches,
+     * reposés dans l'ordre inverse.
+     *
+     * @return la procédure de box shuffle
+     */
+    public static ShuffleProcedure box(){
+        return Packets.BOX;
+    }
+
+    /**
+     * Retourne une coupe simple, au même point de coupe que {@link Deck#cut()}.
+     *
+     * @return la procédure de coupe
+     */
+    public static ShuffleProcedure cut(){
+        return Cut.INSTANCE;
+    }
+
+    /**
+     * Retourne la procédure qui applique plusieurs procédures à la suite.
+     *
+     * @param steps les procédures, dans l'ordre
+     * @return la procédure composée
+     */
+    public static ShuffleProcedure sequence(ShuffleProcedure... steps){
+        return new Sequence(steps.clone());
+    }
+
+    /**
+     * Retourne la procédure qui applique plusieurs fois la même procédure.
+     *
+     * @param step la procédure à répéter
+     * @param times le nombre de répétitions
+     * @return la procédure répétée
+     */
+    public static ShuffleProcedure repeat(ShuffleProcedure step, int times){
+        ShuffleProcedure[] steps = new ShuffleProcedure[times];
+        Arrays.fill(steps, step);
+        return new Sequence(steps);
+    }
+
+    /**
+     * Fait passer les k premières cases sous les autres, à l'aide du tableau de travail.
+     */
+    private static void rotate(int[] cards, int n, int k, int[] scratch){
+        System.arraycopy(cards, 0, scratch, 0, k);
+        System.arraycopy(cards, k, cards, 0, n - k);
+        System.arraycopy(scratch, 0, cards, n - k, k);
+    }
+
+    /**
+     * Mélange de Fisher-Yates.
+     */
+    private static final class Uniform extends ShuffleProcedure {
+        private static final Uniform INSTANCE = new Uniform();
+
+        @Override
+        public void apply(int[] cards, int n, int[] scratch, RandomSource random){
+            for(int i = n - 1; i > 0; i--){
+                int j = random.nextInt(i + 1);
+                int tmp = cards[i];
+                cards[i] = cards[j];
+                cards[j] = tmp;
+            }
+        }
+    }
+
+    /**
+     * Riffle selon le modèle de Gilbert-Shannon-Reeds.
+     *
+     * Le modèle revient à tirer une suite uniforme de n bits : le nombre de bits à 1 donne la
+     * taille de la moitié du dessus (loi binomiale), et le bit de chaque position indique de
+     * quelle moitié tombe la carte. Les bits sont produits 64 par 64 à partir d'une seule
+     * graine, deux fois de suite (comptage puis entrelacement), pour éviter tout tableau de bits.
+     */
+    private static final class Riffle extends ShuffleProcedure {
+        private static final Riffle INSTANCE = new Riffle();
+
+        @Override
+        public void apply(int[] cards, int n, int[] scratch, RandomSource random){
+            if(n < 2){
+                return;
+            }
+            long seed = random.nextLong();
+            int left = 0;
+            for(int word = 0; word << 6 < n; word++){
+                long bits = bits(seed, word);
+                int remaining = n - (word << 6);
+                if(remaining < 64){
+                    bits &= (1L << remaining) - 1;
+                }
+                left += Long.bitCount(bits);
+            }
+            System.arraycopy(cards, 0, scratch, 0, n);
+            int a = 0;
+            int b = left;
+            long bits = 0;
+            for(int i = 0; i < n; i++){
+                if((i & 63) == 0){
+                    bits = bits(seed, i >>> 6);
+                }
+                cards[i] = (bits & 1) != 0 ? scratch[a++] : scratch[b++];
+                bits >>>= 1;
+            }
+        }
+
+        /**
+         * Retourne le mot de 64 bits numéro word de la suite associée à la graine (SplitMix64).
+         */
+        private static long bits(long seed, int word){
+            return Zobrist.mix(seed + (word + 1) * 0x9E3779B97F4A7C15L);
+        }
+    }
+
+    /**
+     * Découpe en tranches reposées dans l'ordre inverse (strip et box shuffle).
+     */
+    private static final class Packets extends ShuffleProcedure {
+        private static final Packets BOX = new Packets(4, false);
+
+        /**
+         * Nombre moyen de tranches.
+         */
+        private final int packets;
+
+        /**
+         * Indique si la taille des tranches varie fortement (strip) ou peu (box).
+         */
+        private final boolean irregular;
+
+        private Packets(int packets, boolean irregular){
+            this.packets = packets;
+            this.irregular = irregular;
+        }
+
+        @Override
+        public void apply(int[] cards, int n, int[] scratch, RandomSource random){
+            int mean = n / this.packets;
+            if(mean < 2){
+                return;
+            }
+            // variation de la taille des tranches : la moitié de la moyenne (strip) ou un huitième (box)
+            int spread = this.irregular ? mean / 2 : Math.max(1, mean / 8);
+            System.arraycopy(cards, 0, scratch, 0, n);
+            int from = 0;
+            int to = n;
+            while(from < n){
+                int size = mean - spread + random.nextInt(2 * spread + 1);
+                size = Math.max(1, Math.min(size, n - from));
+                to -= size;
+                System.arraycopy(scratch, from, cards, to, size);
+                from += size;
+            }
+        }
+    }
+
+    /**
+     * Coupe simple.
+     */
+    private static final class Cut extends ShuffleProcedure {
+        private static final Cut INSTANCE = new Cut();
+
+        @Override
+        public void apply(int[] cards, int n, int[] scratch, RandomSource random){
+            if(n < 5){
+                return;
+            }
+            rotate(cards, n, random.nextInt(n - 4) + 2, scratch);
+        }
+    }
+
+    /**
+     * Enchaînement de procédures.
+     */
+    private static final class Sequence extends ShuffleProcedure {
+        private final ShuffleProcedure[] steps;
+
+        private Sequence(ShuffleProcedure[] steps){
+            this.steps = steps;
+        }
+
+        @Override
+        public void apply(int[] cards, int n, int[] scratch, RandomSource random){
+            for(ShuffleProcedure step : this.steps){
+                step.apply(cards, n, scratch, random);
+            }
+        }
+    }
+}
@@ -1,12 +1,21 @@
 package card.game;
 
 import card.util.FactoryCard;
+import card.util.RandomSource;
 
 public class Test {
 
     public static void main(String[] args) {
         System.out.println("=== TEST AUTOMATISÉ DES CARTES ===");
 
+        testLazyShuffleConservation();
+        testLazyShuffleFrequencies();
+        testShuffleProcedures();
+        testShoeShuffleProcedure();
+        testContinuousShuffler();
+        testShoeBatchDraw();
+        testCardMask();
+
         // Test création de deck 32 cartes
         Deck deck32 = FactoryCard.create32Deck();
         assert deck32.getDeck().size() == 32 : "Le deck de 32 cartes ne contient pas 32 cartes !";
@@ -45,4 +54,381 @@ public class Test {
 
         System.out.println(" Tous les tests sont passés avec succès !");
     }
+
+    /**
+     * Mélange paresseux : une suite aléatoire de pioches, pioches groupées, consultations,
+     * suppressions, ajouts et remélanges ne perd ni ne duplique aucune carte.
+     */
+    private static void testLazyShuffleConservation() {
+        RandomSource ops = RandomSource.seeded(12);
+        int[] full = FactoryCard.ordinals52();
+        for (int run = 0; run < 200; run++) {
+            Deck deck = new Deck(full);
+            deck.setRandom(RandomSource.seeded(run));
+            deck.setLazyShuffle(true);
+            deck.shuffle();
+            int[] out = new int[full.length];
+            int outSize = 0;
+            int[] buffer = new int[5];
+            Card[] cards = new Card[5];
+            for (int step = 0; step < 300; step++) {
+                int size = deck.size();
+                switch (ops.nextInt(10)) {
+                    case 0:
+                        if (size > 0) {
+                            out[outSize++] = deck.drawOrdinal();
+                        }
+                        break;
+                    case 1: {
+                        int n = ops.nextInt(Math.min(5, size) + 1);
+                        deck.draw(n, buffer);
+                        System.arraycopy(buffer, 0, out, outSize, n);
+                        outSize += n;
+                        break;
+                    }
+                    case 2:
+                        if (size > 0) {
+                            int top = deck.peekOrdinal();
+                            assert deck.peekOrdinal() == top : "La consultation du sommet a changé la carte !";
+                            out[outSize++] = deck.drawOrdinal();
+                            assert out[outSize - 1] == top : "La carte piochée n'est pas celle consultée !";
+                        }
+                        break;
+                    case 3:
+                        if (size > 0) {
+                            int i = ops.nextInt(size);
+                            out[outSize++] = deck.ordinalAt(i);
+                            deck.deleteCard(i);
+                        }
+                        break;
+                    case 4:
+                        if (outSize > 0) {
+                            deck.addOrdinal(out[--outSize]);
+                        }
+                        break;
+                    case 5:
+                        if (outSize > 0) {
+                            deck.addOrdinalAtRandom(out[--outSize]);
+                        }
+                        break;
+                    case 6: {
+                        int n = ops.nextInt(Math.min(5, size) + 1);
+                        deck.draw(n, cards);
+                        for (int i = 0; i < n; i++) {
+                            out[outSize++] = cards[i].getOrdinal();
+                        }
+                        break;
+                    }
+                    case 7:
+                        deck.shuffle();
+                        break;
+                    case 8:
+                        deck.abandonPendingShuffle();
+                        break;
+                    default:
+                        if (size > 4) {
+                            deck.cut();
+                        }
+                        break;
+                }
+                assert deck.size() + outSize == full.length : "Le mélange paresseux a perdu ou ajouté des cartes !";
+                for (int rank = 0; rank < 13; rank++) {
+                    int outside = 0;
+                    for (int i = 0; i < outSize; i++) {
+                        outside += Card.rankOf(out[i]) == rank ? 1 : 0;
+                    }
+                    assert deck.rankCount(rank) + outside == 4 : "La composition du paquet est fausse !";
+                }
+            }
+            int[] seen = new int[full.length];
+            for (int i = 0; i < outSize; i++) {
+                seen[out[i]]++;
+            }
+            for (Card c : deck.getDeck()) {
+                seen[c.getOrdinal()]++;
+            }
+            for (int ordinal : full) {
+                assert seen[ordinal] == 1 : "La carte " + Card.of(ordinal) + " est perdue ou dupliquée !";
+            }
+        }
+    }
+
+    /**
+     * Mélange paresseux et mélange immédiat donnent les 120 ordres d'un paquet de 5 cartes
+     * avec les mêmes fréquences, toutes proches de l'uniforme. Le seuil du khi-deux
+     * (180 pour 119 degrés de liberté) n'est dépassé qu'avec une probabilité d'environ 2e-4.
+     */
+    private static void testLazyShuffleFrequencies() {
+        int draws = 120_000;
+        int[] eager = orderFrequencies(false, draws);
+        int[] lazy = orderFrequencies(true, draws);
+        double expected = draws / 120.0;
+        double eagerChi2 = 0;
+        double lazyChi2 = 0;
+        double pairChi2 = 0;
+        int orders = 0;
+        for (int code = 0; code < eager.length; code++) {
+            if (eager[code] + lazy[code] == 0) {
+                continue;
+            }
+            orders++;
+            eagerChi2 += (eager[code] - expected) * (eager[code] - expected) / expected;
+            lazyChi2 += (lazy[code] - expected) * (lazy[code] - expected) / expected;
+            pairChi2 += (double) (eager[code] - lazy[code]) * (eager[code] - lazy[code]) / (eager[code] + lazy[code]);
+        }
+        assert orders == 120 : "Le mélange produit " + orders + " ordres au lieu de 120 !";
+        assert eagerChi2 < 180 : "Le mélange immédiat n'est pas uniforme (khi-deux " + eagerChi2 + ") !";
+        assert lazyChi2 < 180 : "Le mélange paresseux n'est pas uniforme (khi-deux " + lazyChi2 + ") !";
+        assert pairChi2 < 180 : "Les mélanges paresseux et immédiat diffèrent (khi-deux " + pairChi2 + ") !";
+    }
+
+    /**
+     * Procédures de mélange : chacune rend une permutation des n premières cases sans toucher
+     * aux suivantes, pour toutes les tailles de paquet, y compris les plus petites.
+     * Un riffle donne en outre au plus deux suites montantes, comme un vrai riffle.
+     */
+    private static void testShuffleProcedures() {
+        ShuffleProcedure[] procedures = {
+            ShuffleProcedure.uniform(), ShuffleProcedure.riffle(), ShuffleProcedure.strip(2),
+            ShuffleProcedure.strip(6), ShuffleProcedure.box(), ShuffleProcedure.cut(),
+            ShuffleProcedure.sequence(ShuffleProcedure.riffle(), ShuffleProcedure.strip(5), ShuffleProcedure.cut()),
+            ShuffleProcedure.repeat(ShuffleProcedure.riffle(), 7), ShuffleProcedure.sequence()
+        };
+        int[] sizes = {0, 1, 2, 3, 4, 5, 7, 10, 52, 63, 64, 65, 104, 416};
+        RandomSource random = RandomSource.seeded(14);
+        for (ShuffleProcedure procedure : procedures) {
+            for (int n : sizes) {
+                for (int run = 0; run < 20; run++) {
+                    int[] cards = new int[n + 3];
+                    for (int i = 0; i < cards.length; i++) {
+                        cards[i] = i;
+                    }
+                    procedure.apply(cards, n, new int[n], random);
+                    boolean[] seen = new boolean[n];
+                    for (int i = 0; i < n; i++) {
+                        assert cards[i] >= 0 && cards[i] < n && !seen[cards[i]] : "Le mélange n'est pas une permutation (" + n + " cartes) !";
+                        seen[cards[i]] = true;
+                    }
+                    for (int i = n; i < cards.length; i++) {
+                        assert cards[i] == i : "Le mélange a touché les cases au-delà du paquet !";
+                    }
+                    if (procedure == ShuffleProcedure.riffle()) {
+                        // une suite montante est une suite de cartes consécutives qui restent
+                        // dans l'ordre : on compte les cartes placées avant leur prédécesseur
+                        int[] position = new int[n];
+                        for (int i = 0; i < n; i++) {
+                            position[cards[i]] = i;
+                        }
+                        int breaks = 0;
+                        for (int card = 1; card < n; card++) {
+                            breaks += position[card] < position[card - 1] ? 1 : 0;
+                        }
+                        assert breaks <= 1 : "Le riffle a produit plus de deux suites montantes !";
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * La procédure choisie avec {@link Deck#setShuffleProcedure(ShuffleProcedure)} est celle
+     * qu'applique le remélange du sabot, sur le sabot entier défausse comprise, avant la coupe.
+     */
+    private static void testShoeShuffleProcedure() {
+        int[] calls = new int[2];
+        ShuffleProcedure sorting = new ShuffleProcedure() {
+            @Override
+            public void apply(int[] cards, int n, int[] scratch, RandomSource random) {
+                calls[0]++;
+                calls[1] = n;
+                java.util.Arrays.sort(cards, 0, n);
+            }
+        };
+        Shoe shoe = new Shoe(1, 0.75, RandomSource.seeded(3));
+        shoe.setShuffleProcedure(sorting);
+        assert shoe.getShuffleProcedure() == sorting : "La procédure de mélange n'a pas été enregistrée !";
+        for (int i = 0; i < 40; i++) {
+            shoe.discardOrdinal(shoe.drawOrdinal());
+        }
+        assert shoe.reshuffleIfNeeded() : "La carte de coupe aurait dû sortir !";
+        assert calls[0] == 1 && calls[1] == 52 : "Le sabot n'a pas remélangé avec la procédure choisie !";
+        // la procédure trie le sabot : après la coupe, les cartes se suivent à une rotation près
+        int previous = shoe.drawOrdinal();
+        for (int i = 1; i < 52; i++) {
+            int ordinal = shoe.drawOrdinal();
+            assert ordinal == (previous + 1) % 52 : "Le sabot n'est pas dans l'ordre de la procédure !";
+            previous = ordinal;
+        }
+        shoe.setShuffleProcedure(null);
+        shoe.reshuffle();
+        assert calls[0] == 1 : "La procédure a servi après avoir été retirée !";
+    }
+
+    /**
+     * Mélangeur continu : les cartes rendues reviennent dans la machine et peuvent être tirées
+     * de nouveau, et les cartes de la machine et celles en jeu forment toujours le sabot complet.
+     */
+    private static void testContinuousShuffler() {
+        ContinuousShuffler csm = new ContinuousShuffler(2, RandomSource.seeded(13));
+        assert csm.isLazyShuffle() && csm.getShuffleCount() == 1 : "Le mélangeur continu n'est pas en mélange paresseux !";
+        int total = csm.getTotalCards();
+        assert csm.size() == total : "Le mélangeur continu n'est pas plein !";
+
+        // une carte rendue est de nouveau dans la machine
+        int first = csm.drawOrdinal();
+        csm.discardOrdinal(first);
+        int[] all = new int[total];
+        csm.draw(total, all);
+        int copies = 0;
+        for (int ordinal : all) {
+            copies += ordinal == first ? 1 : 0;
+        }
+        assert copies == 2 : "La carte rendue n'a pas été tirée de nouveau !";
+        csm.addOrdinals(all, total);
+        csm.shuffle();
+
+        RandomSource ops = RandomSource.seeded(31);
+        int[] inPlay = new int[total];
+        int inPlaySize = 0;
+        int[] drawn = new int[Card.CARD_COUNT];
+        for (int round = 0; round < 5000; round++) {
+            int n = 2 + ops.nextInt(9);
+            for (int i = 0; i < n && !csm.isEmpty(); i++) {
+                int ordinal = csm.drawOrdinal();
+                drawn[ordinal]++;
+                inPlay[inPlaySize++] = ordinal;
+            }
+            // une partie des cartes en jeu est rendue, parfois aucune
+            int back = ops.nextInt(inPlaySize + 1);
+            for (int i = 0; i < back; i++) {
+                int k = ops.nextInt(inPlaySize);
+                csm.discardOrdinal(inPlay[k]);
+                inPlay[k] = inPlay[--inPlaySize];
+            }
+            assert csm.size() + inPlaySize == total : "Le mélangeur continu a perdu ou ajouté des cartes !";
+            for (int rank = 0; rank < 13; rank++) {
+                int outside = 0;
+                for (int i = 0; i < inPlaySize; i++) {
+                    outside += Card.rankOf(inPlay[i]) == rank ? 1 : 0;
+                }
+                assert csm.rankCount(rank) + outside == 8 : "La composition du mélangeur continu est fausse !";
+            }
+            assert !csm.needsReshuffle() && csm.getDiscards().isEmpty() : "Le mélangeur continu utilise une défausse !";
+        }
+        assert csm.getShuffleCount() == 1 : "Le mélangeur continu a été remélangé !";
+        for (int ordinal = 0; ordinal < Card.CARD_COUNT; ordinal++) {
+            assert drawn[ordinal] > 2 : "La carte " + Card.of(ordinal) + " n'est jamais revenue !";
+        }
+    }
+
+    /**
+     * Pioche groupée de cartes dans un sabot : quand le sabot s'épuise en cours de pioche,
+     * la défausse est remélangée et la pioche continue, sans perdre ni dupliquer de carte.
+     */
+    private static void testShoeBatchDraw() {
+        Shoe shoe = new Shoe(1, 0.75, RandomSource.seeded(10));
+        shoe.setShuffleProcedure(ShuffleProcedure.repeat(ShuffleProcedure.riffle(), 7));
+        Card[] hand = new Card[5];
+        int[] seen = new int[Card.CARD_COUNT];
+        for (int round = 0; round < 200; round++) {
+            int shuffles = shoe.getShuffleCount();
+            int before = shoe.size();
+            shoe.draw(5, hand);
+            for (Card c : hand) {
+                seen[c.getOrdinal()]++;
+                shoe.discard(c);
+            }
+            assert before >= 5 || shoe.getShuffleCount() == shuffles + 1 : "Le sabot épuisé n'a pas été remélangé !";
+            assert shoe.size() + shoe.getDiscards().size() == 52 : "La pioche groupée a perdu ou ajouté des cartes !";
+        }
+        for (int ordinal = 0; ordinal < Card.CARD_COUNT; ordinal++) {
+            assert seen[ordinal] > 0 : "La carte " + Card.of(ordinal) + " n'a jamais été piochée !";
+        }
+    }
+
+    /**
+     * Masques de cartes : comptes par rang et totaux de blackjack, sur des mains connues puis sur
+     * des ensembles aléatoires comparés carte par carte à un décompte direct et à {@link RankCounts}.
+     */
+    private static void testCardMask() {
+        int ace = Card.RANK_COUNT - 1;
+        long blackjack = mask(Card.ordinal(ace, 0), Card.ordinal(11, 2));
+        assert CardMask.total(blackjack) == 21 && CardMask.hardTotal(blackjack) == 11 && CardMask.isSoft(blackjack) : "As + Roi devrait valoir 21 souple !";
+        long softTwentyOne = mask(Card.ordinal(ace, 1), Card.ordinal(ace, 3), Card.ordinal(7, 0));
+        assert CardMask.total(softTwentyOne) == 21 && CardMask.isSoft(softTwentyOne) : "As + As + 9 devrait valoir 21 souple !";
+        long hardSixteen = mask(Card.ordinal(ace, 0), Card.ordinal(4, 1), Card.ordinal(7, 2));
+        assert CardMask.total(hardSixteen) == 16 && !CardMask.isSoft(hardSixteen) : "As + 6 + 9 devrait valoir 16 dur !";
+        assert CardMask.total(CardMask.EMPTY) == 0 && CardMask.size(CardMask.FULL_DECK) == 52 : "Masques vide ou plein incorrects !";
+        assert CardMask.of(FactoryCard.create52Deck()) == CardMask.FULL_DECK : "Le masque d'un jeu complet n'est pas plein !";
+
+        RandomSource random = RandomSource.seeded(9);
+        for (int run = 0; run < 2000; run++) {
+            long mask = CardMask.EMPTY;
+            RankCounts counts = new RankCounts();
+            int[] byRank = new int[Card.RANK_COUNT];
+            int hard = 0;
+            int cards = 1 + random.nextInt(run % 2 == 0 ? 6 : 52);
+            for (int k = 0; k < cards; k++) {
+                int ordinal = random.nextInt(Card.CARD_COUNT);
+                if (CardMask.contains(mask, ordinal)) {
+                    continue;
+                }
+                mask = CardMask.add(mask, ordinal);
+                counts.add(ordinal);
+                byRank[Card.rankOf(ordinal)]++;
+                hard += Card.valueOf(ordinal);
+            }
+            assert CardMask.size(mask) == counts.size() : "Taille du masque incorrecte !";
+            for (int rank = 0; rank < Card.RANK_COUNT; rank++) {
+                assert CardMask.rankCount(mask, rank) == byRank[rank] : "Compte du rang " + rank + " incorrect !";
+            }
+            assert CardMask.tenCount(mask) == counts.countValue(10) && CardMask.aceCount(mask) == byRank[ace] : "Compte des 10 ou des As incorrect !";
+            boolean soft = byRank[ace] > 0 && hard <= 11;
+            assert CardMask.hardTotal(mask) == hard && CardMask.isSoft(mask) == soft : "Total dur ou souplesse incorrects !";
+            assert CardMask.total(mask) == (soft ? hard + 10 : hard) && CardMask.total(mask) == counts.total() : "Total incorrect !";
+            int removed = Card.ordinal(random.nextInt(Card.RANK_COUNT), random.nextInt(Card.COLOR_COUNT));
+            long smaller = CardMask.remove(mask, removed);
+            assert !CardMask.contains(smaller, removed) && CardMask.size(smaller) == CardMask.size(mask) - (CardMask.contains(mask, removed) ? 1 : 0) : "Retrait incorrect !";
+        }
+    }
+
+    /**
+     * Construit le masque de quelques cartes.
+     */
+    private static long mask(int... ordinals) {
+        long mask = CardMask.EMPTY;
+        for (int ordinal : ordinals) {
+            mask = CardMask.add(mask, ordinal);
+        }
+        return mask;
+    }
+
+    /**
+     * Compte les ordres obtenus en mélangeant un paquet de 5 cartes, chaque ordre étant codé
+     * en base 5. En mode paresseux, l'ordre est lu par une consultation, une pioche groupée
+     * et des pioches simples, pour que le mélange avance par étapes de tailles différentes.
+     */
+    private static int[] orderFrequencies(boolean lazyShuffle, int draws) {
+        Deck deck = new Deck(new int[] {0, 1, 2, 3, 4});
+        deck.setRandom(RandomSource.seeded(lazyShuffle ? 2 : 1));
+        deck.setLazyShuffle(lazyShuffle);
+        int[] order = new int[5];
+        int[] counts = new int[5 * 5 * 5 * 5 * 5];
+        for (int k = 0; k < draws; k++) {
+            deck.shuffle();
+            int top = deck.peekOrdinal();
+            deck.draw(2, order);
+            assert order[0] == top : "La pioche groupée ne commence pas par la carte consultée !";
+            for (int i = 2; i < 5; i++) {
+                order[i] = deck.drawOrdinal();
+            }
+            int code = 0;
+            for (int i = 0; i < 5; i++) {
+                code = code * 5 + order[i];
+            }
+            counts[code]++;
+            deck.addOrdinals(order, 5);
+        }
+        return counts;
+    }
 }
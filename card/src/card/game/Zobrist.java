@@ -0,0 +1,85 @@
+package card.game;
+
+/**
+ * Clés de hachage de Zobrist pour les ensembles de cartes, indépendamment de leur ordre.
+ *
+ * Un ensemble est haché rang par rang : la k-ième carte d'un rang apporte la clé aléatoire
+ * {@link #step(int, int)} de (rang, k), et le hachage de l'ensemble est le ou exclusif de ces
+ * clés. Ajouter ou retirer une carte ne coûte donc qu'un ou exclusif, avec la clé du compteur
+ * de son rang avant retrait (ou après ajout). Deux ensembles de même composition ont le même
+ * hachage, quel que soit l'ordre dans lequel les cartes ont été ajoutées ou retirées.
+ *
+ * Les clés sont tirées d'une suite SplitMix64 fixe : les hachages sont les mêmes d'une exécution
+ * à l'autre. Deux suites distinctes servent aux compositions de paquets et aux mains, pour que
+ * les deux hachages puissent être combinés dans une même clé.
+ */
+public final class Zobrist {
+    /**
+     * Nombre de compteurs par rang dont les clés sont précalculées (au-delà, elles sont calculées à la volée).
+     */
+    private static final int TABLE_COUNTS = 64;
+
+    /**
+     * Graines des suites des paquets et des mains.
+     */
+    private static final long DECK_SEED = 0x5DEECE66DL;
+    private static final long HAND_SEED = 0x2545F4914F6CDD1DL;
+
+    private static final long[] DECK_STEPS = table(DECK_SEED);
+    private static final long[] HAND_STEPS = table(HAND_SEED);
+
+    /**
+     * Constructeur privé pour empêcher l'instanciation.
+     * Cette classe ne contient que des méthodes statiques.
+     */
+    private Zobrist(){}
+
+    /**
+     * Retourne la clé de la count-ième carte d'un rang dans une composition de paquet.
+     *
+     * @param rank le numéro de rang (0 = "2", ..., 12 = "As")
+     * @param count le rang de la carte parmi celles de son rang, à partir de 1
+     * @return la clé à combiner par ou exclusif
+     */
+    public static long step(int rank, int count){
+        return count < TABLE_COUNTS ? DECK_STEPS[rank * TABLE_COUNTS + count] : key(DECK_SEED, rank, count);
+    }
+
+    /**
+     * Retourne la clé de la count-ième carte d'un rang dans une main.
+     *
+     * @param rank le numéro de rang (0 = "2", ..., 12 = "As")
+     * @param count le rang de la carte parmi celles de son rang dans la main, à partir de 1
+     * @return la clé à combiner par ou exclusif
+     */
+    public static long handStep(int rank, int count){
+        return count < TABLE_COUNTS ? HAND_STEPS[rank * TABLE_COUNTS + count] : key(HAND_SEED, rank, count);
+    }
+
+    /**
+     * Mélange les bits d'une valeur (finaliseur SplitMix64), pour dériver une clé d'un entier.
+     * C'est aussi l'unique finaliseur dont le riffle et les simulations tirent leurs bits et leurs graines.
+     *
+     * @param z la valeur
+     * @return une valeur de 64 bits d'apparence aléatoire
+     */
+    public static long mix(long z){
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long key(long seed, int rank, int count){
+        return mix(seed + ((long) count * Card.RANK_COUNT + rank + 1) * 0x9E3779B97F4A7C15L);
+    }
+
+    private static long[] table(long seed){
+        long[] steps = new long[Card.RANK_COUNT * TABLE_COUNTS];
+        for(int rank = 0; rank < Card.RANK_COUNT; rank++){
+            for(int count = 1; count < TABLE_COUNTS; count++){
+                steps[rank * TABLE_COUNTS + count] = key(seed, rank, count);
+            }
+        }
+        return steps;
+    }
+}
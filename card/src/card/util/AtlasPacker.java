@@ -0,0 +1,127 @@
+package card.util;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Properties;
+
+import javax.imageio.ImageIO;
+
+import card.game.Card;
+
+/**
+ * Outil de construction qui regroupe les 52 faces et le dos de carte dans une seule image (atlas).
+ * Il est lancé par la cible "atlas" de build.xml, après la compilation.
+ *
+ * Chaque image est réduite à la taille d'une cellule puis placée dans une grille ; l'index
+ * généré (un fichier de propriétés) associe à chaque ordinal de carte la position de sa cellule.
+ * L'ordinal {@link Card#CARD_COUNT} désigne le dos de carte.
+ */
+public class AtlasPacker {
+    /**
+     * Nom de l'image de l'atlas, à côté des images des cartes.
+     */
+    public static final String ATLAS_IMAGE = "atlas.png";
+
+    /**
+     * Nom du fichier d'index de l'atlas.
+     */
+    public static final String ATLAS_INDEX = "atlas.properties";
+
+    /**
+     * Nombre de cellules par ligne de l'atlas.
+     */
+    private static final int COLUMNS = 8;
+
+    /**
+     * Constructeur privé pour empêcher l'instanciation.
+     */
+    private AtlasPacker() {}
+
+    /**
+     * Construit l'atlas.
+     *
+     * @param args le répertoire des images (contenant les dossiers de couleurs et back.jpg),
+     *             la largeur et la hauteur d'une cellule en pixels
+     * @throws IOException si une image ne peut être lue ou l'atlas écrit
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage : AtlasPacker <répertoire des cartes> <largeur> <hauteur>");
+            System.exit(1);
+        }
+        File dir = new File(args[0]);
+        int cellWidth = Integer.parseInt(args[1]);
+        int cellHeight = Integer.parseInt(args[2]);
+
+        int count = Card.CARD_COUNT + 1;
+        int rows = (count + COLUMNS - 1) / COLUMNS;
+        BufferedImage atlas = new BufferedImage(COLUMNS * cellWidth, rows * cellHeight, BufferedImage.TYPE_INT_ARGB);
+        Properties index = new Properties();
+        index.setProperty("cell.width", Integer.toString(cellWidth));
+        index.setProperty("cell.height", Integer.toString(cellHeight));
+        index.setProperty("count", Integer.toString(count));
+
+        Graphics2D g = atlas.createGraphics();
+        for (int ordinal = 0; ordinal < count; ordinal++) {
+            File source;
+            if (ordinal == Card.CARD_COUNT) {
+                source = new File(dir, "back.jpg");
+            } else {
+                Card card = Card.of(ordinal);
+                source = new File(dir, card.getColor() + File.separator + card.getName() + ".png");
+            }
+            BufferedImage image = ImageIO.read(source);
+            if (image == null) {
+                throw new IOException("Image illisible : " + source);
+            }
+            int x = (ordinal % COLUMNS) * cellWidth;
+            int y = (ordinal / COLUMNS) * cellHeight;
+            g.drawImage(downscale(image, cellWidth, cellHeight), x, y, null);
+            index.setProperty(Integer.toString(ordinal), x + "," + y);
+        }
+        g.dispose();
+
+        ImageIO.write(atlas, "png", new File(dir, ATLAS_IMAGE));
+        try (OutputStream out = new FileOutputStream(new File(dir, ATLAS_INDEX))) {
+            index.store(out, "Index de l'atlas des cartes : ordinal=x,y");
+        }
+        System.out.println("Atlas " + atlas.getWidth() + "x" + atlas.getHeight() + " : " + count + " images");
+    }
+
+    /**
+     * Réduit une image par divisions successives par deux, puis à la taille exacte,
+     * en interpolation bilinéaire : le résultat est proche d'un lissage par moyenne
+     * de zones, sans passer par le chargement asynchrone d'AWT.
+     *
+     * @param image l'image source
+     * @param width la largeur cible
+     * @param height la hauteur cible
+     * @return l'image réduite
+     */
+    static BufferedImage downscale(BufferedImage image, int width, int height) {
+        BufferedImage current = image;
+        int w = image.getWidth();
+        int h = image.getHeight();
+        do {
+            w = Math.max(width, w / 2);
+            h = Math.max(height, h / 2);
+            current = resize(current, w, h);
+        } while (w != width || h != height);
+        return current;
+    }
+
+    private static BufferedImage resize(BufferedImage image, int width, int height) {
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = result.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(image, 0, 0, width, height, null);
+        g.dispose();
+        return result;
+    }
+}
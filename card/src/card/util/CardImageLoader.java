@@ -1,70 +1,418 @@
 package card.util;
 
+import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import card.game.Card;
 
 /**
  * Utilitaire pour charger les images des cartes à jouer.
  * Cette classe gère le chargement et le redimensionnement des images
  * des cartes depuis les ressources du projet.
+ *
+ * Chaque image n'est décodée et redimensionnée qu'une seule fois par taille :
+ * le résultat est conservé dans un cache indexé par l'ordinal de la carte et
+ * la taille demandée. Le cache est borné et évince les images les moins
+ * récemment utilisées lorsque plusieurs tailles sont employées.
+ *
+ * Lorsque la bibliothèque est construite par la cible "dist", les images sont
+ * regroupées dans un atlas unique (voir {@link AtlasPacker}) : il est décodé une
+ * seule fois et chaque carte y est découpée selon son ordinal. Sans atlas, les
+ * images individuelles sont chargées.
+ *
+ * Les images redimensionnées sont aussi conservées sur disque d'un lancement à
+ * l'autre (voir {@link ImageDiskCache}) : une fois ce cache rempli, l'affichage
+ * ne décode ni ne redimensionne plus aucune image.
+ *
+ * Les images peuvent être préchargées en arrière-plan avec {@link #preload(Executor)} :
+ * une demande portant sur une image en cours de préparation n'attend que celle-ci.
  */
 public class CardImageLoader {
     // Dimensions standard des cartes
     private static final int CARD_WIDTH = 80;
     private static final int CARD_HEIGHT = 120;
 
+    /**
+     * Ordinal réservé au dos de carte dans le cache (juste après les 52 faces).
+     */
+    private static final int BACK_ORDINAL = Card.CARD_COUNT;
+
+    /**
+     * Nombre maximal d'images conservées : les 53 images pour trois tailles différentes.
+     */
+    private static final int MAX_CACHED_IMAGES = 3 * (Card.CARD_COUNT + 1);
+
+    /**
+     * Cache des images redimensionnées (prêtes ou en cours de préparation),
+     * en ordre d'accès pour l'éviction LRU.
+     */
+    private static final Map<Long, CompletableFuture<ImageIcon>> CACHE = new LinkedHashMap<Long, CompletableFuture<ImageIcon>>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, CompletableFuture<ImageIcon>> eldest) {
+            return size() > MAX_CACHED_IMAGES;
+        }
+    };
+
+    /**
+     * Répertoire des ressources des cartes.
+     */
+    private static final String CARDS_PATH = "/card/cards/";
+
+    /**
+     * Atlas décodé, ou null s'il n'est pas disponible.
+     */
+    private static Atlas atlas;
+
+    /**
+     * Indique si le chargement de l'atlas a déjà été tenté.
+     */
+    private static boolean atlasLoaded = false;
+
+    /**
+     * Constructeur privé pour empêcher l'instanciation.
+     * Cette classe ne contient que des méthodes statiques.
+     */
+    private CardImageLoader() {}
+
     /**
      * Charge l'image correspondant à une carte donnée.
      * L'image est recherchée dans le chemin /card/cards/{couleur}/{nom}.png
      * et redimensionnée aux dimensions standard (80×120 pixels).
-     * 
+     *
      * @param card la carte dont on veut charger l'image
      * @return une ImageIcon contenant l'image redimensionnée, ou null si l'image n'est pas trouvée
      */
     public static ImageIcon load(Card card) {
-        
-         
-        String path = "/card/cards/" + card.getColor() + "/" + card.getName() + ".png";
-
+        return load(card, CARD_WIDTH, CARD_HEIGHT);
+    }
 
-        URL imgURL = CardImageLoader.class.getResource(path);
-        
-        if (imgURL == null) {
-            System.err.println("Image Non Trouvé: " + path);
-            return null;
+    /**
+     * Charge l'image correspondant à une carte donnée, aux dimensions demandées.
+     * Les cartes d'un jeu standard sont servies depuis le cache.
+     *
+     * @param card la carte dont on veut charger l'image
+     * @param width la largeur souhaitée en pixels
+     * @param height la hauteur souhaitée en pixels
+     * @return une ImageIcon contenant l'image redimensionnée, ou null si l'image n'est pas trouvée
+     */
+    public static ImageIcon load(Card card, int width, int height) {
+        int ordinal = card.getOrdinal();
+        if (ordinal < 0) {
+            return loadScaled(CARDS_PATH + card.getColor() + "/" + card.getName() + ".png", width, height);
         }
-        System.out.println("Image Trouvé: " + path);
-        ImageIcon icon = new ImageIcon(imgURL);
-        Image scaledImage = icon.getImage().getScaledInstance(
-            CARD_WIDTH, CARD_HEIGHT, Image.SCALE_SMOOTH
-        );
-        return new ImageIcon(scaledImage);
-        
+        return cached(ordinal, pathOf(ordinal), width, height);
     }
 
     /**
      * Charge l'image du dos de carte standard.
      * L'image est recherchée dans le chemin /card/cards/back.jpg
      * et redimensionnée aux dimensions standard (80×120 pixels).
-     * 
+     *
      * @return une ImageIcon contenant l'image du dos redimensionnée, ou null si l'image n'est pas trouvée
      */
     public static ImageIcon loadBack() {
-        
+        return loadBack(CARD_WIDTH, CARD_HEIGHT);
+    }
+
+    /**
+     * Charge l'image du dos de carte standard, aux dimensions demandées.
+     *
+     * @param width la largeur souhaitée en pixels
+     * @param height la hauteur souhaitée en pixels
+     * @return une ImageIcon contenant l'image du dos redimensionnée, ou null si l'image n'est pas trouvée
+     */
+    public static ImageIcon loadBack(int width, int height) {
+        return cached(BACK_ORDINAL, pathOf(BACK_ORDINAL), width, height);
+    }
+
+    /**
+     * Prépare en arrière-plan les 52 faces et le dos aux dimensions standard.
+     *
+     * @param executor l'exécuteur sur lequel décoder et redimensionner les images
+     * @return une tâche terminée lorsque toutes les images sont prêtes
+     */
+    public static CompletableFuture<Void> preload(Executor executor) {
+        return preload(executor, CARD_WIDTH, CARD_HEIGHT);
+    }
+
+    /**
+     * Prépare en arrière-plan les 52 faces et le dos aux dimensions demandées.
+     * Les images déjà en cache ou en cours de préparation ne sont pas recalculées.
+     *
+     * @param executor l'exécuteur sur lequel décoder et redimensionner les images
+     * @param width la largeur souhaitée en pixels
+     * @param height la hauteur souhaitée en pixels
+     * @return une tâche terminée lorsque toutes les images sont prêtes
+     */
+    public static CompletableFuture<Void> preload(Executor executor, int width, int height) {
+        CompletableFuture<?>[] all = new CompletableFuture<?>[BACK_ORDINAL + 1];
+        for (int ordinal = 0; ordinal <= BACK_ORDINAL; ordinal++) {
+            Long key = key(ordinal, width, height);
+            CompletableFuture<ImageIcon> future;
+            boolean owner = false;
+            synchronized (CACHE) {
+                future = CACHE.get(key);
+                if (future == null) {
+                    future = new CompletableFuture<>();
+                    CACHE.put(key, future);
+                    owner = true;
+                }
+            }
+            if (owner) {
+                int o = ordinal;
+                CompletableFuture<ImageIcon> target = future;
+                executor.execute(() -> produce(key, o, pathOf(o), width, height, target));
+            }
+            all[ordinal] = future;
+        }
+        return CompletableFuture.allOf(all);
+    }
+
+    /**
+     * Vide le cache des images.
+     */
+    public static void clearCache() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    /**
+     * Retourne l'image en cache, ou la charge et la met en cache si elle est absente.
+     * Si l'image est en cours de préparation par un autre thread, attend uniquement celle-ci.
+     * Les images introuvables ne sont pas mises en cache.
+     *
+     * @param ordinal l'ordinal de la carte, ou BACK_ORDINAL pour le dos
+     * @param path le chemin de la ressource source
+     * @param width la largeur souhaitée en pixels
+     * @param height la hauteur souhaitée en pixels
+     * @return l'image redimensionnée, ou null si la ressource est introuvable
+     */
+    private static ImageIcon cached(int ordinal, String path, int width, int height) {
+        Long key = key(ordinal, width, height);
+        CompletableFuture<ImageIcon> future;
+        boolean owner = false;
+        synchronized (CACHE) {
+            future = CACHE.get(key);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                CACHE.put(key, future);
+                owner = true;
+            }
+        }
+        if (owner) {
+            produce(key, ordinal, path, width, height, future);
+        }
+        return future.join();
+    }
+
+    /**
+     * Calcule une image et la publie dans sa tâche de cache.
+     * Une image introuvable est retirée du cache pour être redemandée plus tard.
+     *
+     * @param key la clé de cache de l'image
+     * @param ordinal l'ordinal de la carte, ou BACK_ORDINAL pour le dos
+     * @param path le chemin de la ressource source
+     * @param width la largeur souhaitée en pixels
+     * @param height la hauteur souhaitée en pixels
+     * @param future la tâche à compléter
+     */
+    private static void produce(Long key, int ordinal, String path, int width, int height, CompletableFuture<ImageIcon> future) {
+        ImageIcon icon = null;
+        try {
+            icon = render(ordinal, path, width, height);
+        } finally {
+            if (icon == null) {
+                synchronized (CACHE) {
+                    CACHE.remove(key, future);
+                }
+            }
+            future.complete(icon);
+        }
+    }
+
+    /**
+     * Produit une image redimensionnée en passant par le cache disque.
+     * L'image est relue telle quelle si le cache disque est à jour ; sinon elle est
+     * découpée dans l'atlas (ou chargée depuis sa ressource), redimensionnée,
+     * puis enregistrée sur disque pour les lancements suivants.
+     *
+     * @param ordinal l'ordinal de la carte, ou BACK_ORDINAL pour le dos
+     * @param path le chemin de la ressource individuelle
+     * @param width la largeur souhaitée en pixels
+     * @param height la hauteur souhaitée en pixels
+     * @return l'image redimensionnée, ou null si la ressource est introuvable
+     */
+    private static ImageIcon render(int ordinal, String path, int width, int height) {
+        URL source = atlasImageResource();
+        if (source == null) {
+            source = CardImageLoader.class.getResource(path);
+        }
+        if (source == null) {
+            System.err.println("Image Non Trouvé: " + path);
+            return null;
+        }
+        long stamp = ImageDiskCache.stamp(source);
+        BufferedImage image = ImageDiskCache.read(ordinal, width, height, stamp);
+        if (image != null) {
+            return new ImageIcon(image);
+        }
+
+        ImageIcon icon = loadFromAtlas(ordinal, width, height);
+        if (icon == null) {
+            icon = loadScaled(path, width, height);
+        }
+        if (icon == null) {
+            return null;
+        }
+        image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.drawImage(icon.getImage(), 0, 0, width, height, null);
+        g.dispose();
+        ImageDiskCache.write(ordinal, stamp, image);
+        return new ImageIcon(image);
+    }
+
+    /**
+     * Retourne le chemin de la ressource individuelle d'une carte ou du dos.
+     *
+     * @param ordinal l'ordinal de la carte, ou BACK_ORDINAL pour le dos
+     * @return le chemin de la ressource
+     */
+    private static String pathOf(int ordinal) {
+        if (ordinal == BACK_ORDINAL) {
+            return CARDS_PATH + "back.jpg";
+        }
+        Card card = Card.of(ordinal);
+        return CARDS_PATH + card.getColor() + "/" + card.getName() + ".png";
+    }
+
+    /**
+     * Découpe une image dans l'atlas et la redimensionne si nécessaire.
+     *
+     * @param ordinal l'ordinal de la carte, ou BACK_ORDINAL pour le dos
+     * @param width la largeur souhaitée en pixels
+     * @param height la hauteur souhaitée en pixels
+     * @return l'image redimensionnée, ou null si l'atlas n'est pas disponible
+     */
+    private static ImageIcon loadFromAtlas(int ordinal, int width, int height) {
+        Atlas a = atlas();
+        if (a == null || ordinal >= a.x.length) {
+            return null;
+        }
+        BufferedImage cell = a.image.getSubimage(a.x[ordinal], a.y[ordinal], a.cellWidth, a.cellHeight);
+        if (width == a.cellWidth && height == a.cellHeight) {
+            return new ImageIcon(cell);
+        }
+        return new ImageIcon(cell.getScaledInstance(width, height, Image.SCALE_SMOOTH));
+    }
+
+    /**
+     * Retourne l'atlas, en le décodant lors du premier appel.
+     *
+     * @return l'atlas, ou null s'il est absent des ressources
+     */
+    private static synchronized Atlas atlas() {
+        if (!atlasLoaded) {
+            atlasLoaded = true;
+            atlas = readAtlas();
+        }
+        return atlas;
+    }
+
+    /**
+     * Retourne l'emplacement de l'image de l'atlas, sans la décoder.
+     *
+     * @return l'URL de l'atlas, ou null s'il est absent des ressources
+     */
+    private static URL atlasImageResource() {
+        return CardImageLoader.class.getResource(CARDS_PATH + AtlasPacker.ATLAS_IMAGE);
+    }
+
+    /**
+     * Lit l'image et l'index de l'atlas depuis les ressources.
+     *
+     * @return l'atlas, ou null s'il est absent ou illisible
+     */
+    private static Atlas readAtlas() {
+        URL imageURL = atlasImageResource();
+        URL indexURL = CardImageLoader.class.getResource(CARDS_PATH + AtlasPacker.ATLAS_INDEX);
+        if (imageURL == null || indexURL == null) {
+            return null;
+        }
+        try (InputStream in = indexURL.openStream()) {
+            Properties index = new Properties();
+            index.load(in);
+            Atlas a = new Atlas();
+            a.image = ImageIO.read(imageURL);
+            a.cellWidth = Integer.parseInt(index.getProperty("cell.width"));
+            a.cellHeight = Integer.parseInt(index.getProperty("cell.height"));
+            int count = Integer.parseInt(index.getProperty("count"));
+            a.x = new int[count];
+            a.y = new int[count];
+            for (int i = 0; i < count; i++) {
+                String[] position = index.getProperty(Integer.toString(i)).split(",");
+                a.x[i] = Integer.parseInt(position[0]);
+                a.y[i] = Integer.parseInt(position[1]);
+            }
+            return a;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Atlas illisible, chargement des images individuelles : " + e);
+            return null;
+        }
+    }
 
-        String path = "/card/cards/back.jpg";
+    /**
+     * Décode une ressource et la redimensionne.
+     *
+     * @param path le chemin de la ressource
+     * @param width la largeur souhaitée en pixels
+     * @param height la hauteur souhaitée en pixels
+     * @return l'image redimensionnée, ou null si la ressource est introuvable
+     */
+    private static ImageIcon loadScaled(String path, int width, int height) {
         URL imgURL = CardImageLoader.class.getResource(path);
-        
+
         if (imgURL == null) {
             System.err.println("Image Non Trouvé: " + path);
             return null;
         }
         ImageIcon icon = new ImageIcon(imgURL);
         Image scaledImage = icon.getImage().getScaledInstance(
-            CARD_WIDTH, CARD_HEIGHT, Image.SCALE_SMOOTH
+            width, height, Image.SCALE_SMOOTH
         );
         return new ImageIcon(scaledImage);
     }
-}
\ No newline at end of file
+
+    /**
+     * Calcule la clé de cache d'une image.
+     *
+     * @param ordinal l'ordinal de la carte (ou du dos)
+     * @param width la largeur en pixels
+     * @param height la hauteur en pixels
+     * @return la clé combinant ordinal et dimensions
+     */
+    private static long key(int ordinal, int width, int height) {
+        return ((long) width << 40) | ((long) height << 16) | ordinal;
+    }
+
+    /**
+     * Image de l'atlas et position de chaque cellule, indexée par ordinal.
+     */
+    private static final class Atlas {
+        private BufferedImage image;
+        private int cellWidth;
+        private int cellHeight;
+        private int[] x;
+        private int[] y;
+    }
+}
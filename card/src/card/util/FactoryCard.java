@@ -1,6 +1,5 @@
 package card.util;
 
-import java.util.LinkedList;
 import java.util.List;
 
 import card.game.*;
@@ -21,6 +20,10 @@ public class FactoryCard {
     // Les figures (têtes)
     private static final List<String> HEADS = List.of("Valet", "Reine", "Roi");
 
+    // Les ordinaux des cartes canoniques de chaque type de jeu, dans l'ordre de création
+    private static final int[] ORDINALS_52 = ordinals(NAMES_52);
+    private static final int[] ORDINALS_32 = ordinals(NAMES_32);
+
     /**
      * Constructeur privé pour empêcher l'instanciation.
      * Cette classe ne contient que des méthodes statiques.
@@ -34,13 +37,7 @@ public class FactoryCard {
      * @return un Deck contenant 32 cartes (4 couleurs × 8 valeurs)
      */
     public static Deck create32Deck() {
-        LinkedList<Card> cards = new LinkedList<>();
-        for (String name : NAMES_32) {
-            for (String color : COLORS) {
-                cards.add(createCard(color, name));
-            }
-        }
-        return new Deck(cards);
+        return createDeck(ORDINALS_32);
     }
 
     /**
@@ -50,13 +47,7 @@ public class FactoryCard {
      * @return un Deck contenant 52 cartes (4 couleurs × 13 valeurs)
      */
     public static Deck create52Deck() {
-        LinkedList<Card> cards = new LinkedList<>();
-        for (String name : NAMES_52) {
-            for (String color : COLORS) {
-                cards.add(createCard(color, name));
-            }
-        }
-        return new Deck(cards);
+        return createDeck(ORDINALS_52);
     }
 
     /**
@@ -65,22 +56,27 @@ public class FactoryCard {
      * @return un Deck vide
      */
      public static Deck create0Deck() {
-        LinkedList<Card> cards = new LinkedList<>();
-        return new Deck(cards);
+        return new Deck();
     }
 
     /**
-     * Crée une carte individuelle avec la couleur et le nom spécifiés.
+     * Retourne la carte individuelle de la couleur et du nom spécifiés.
      * La valeur de la carte est automatiquement attribuée selon les règles suivantes :
      * - Les figures (Valet, Reine, Roi) valent 10
      * - L'As vaut 1
      * - Les autres cartes valent leur valeur numérique
+     * Pour une carte d'un jeu standard, aucune carte n'est allouée :
+     * l'instance canonique partagée est renvoyée.
      * 
      * @param color la couleur de la carte (Pique, Coeur, Carreau, Trefle)
      * @param name le nom de la carte (2-10, Valet, Reine, Roi, As)
-     * @return une nouvelle carte avec les attributs spécifiés
+     * @return la carte correspondante
      */
     public static Card createCard(String color, String name){
+        int ordinal = Card.ordinalOf(color, name);
+        if(ordinal >= 0){
+            return Card.of(ordinal);
+        }
         if(HEADS.contains(name)){
             return new Card(color,name, 10);
         }
@@ -91,4 +87,51 @@ public class FactoryCard {
             return new Card(color,name, Integer.parseInt(name));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Retourne une copie des ordinaux des cartes d'un jeu de 52 cartes,
+     * dans l'ordre utilisé par {@link #create52Deck()}.
+     * 
+     * @return un tableau de 52 ordinaux
+     */
+    public static int[] ordinals52() {
+        return ORDINALS_52.clone();
+    }
+
+    /**
+     * Retourne une copie des ordinaux des cartes d'un jeu de 32 cartes,
+     * dans l'ordre utilisé par {@link #create32Deck()}.
+     * 
+     * @return un tableau de 32 ordinaux
+     */
+    public static int[] ordinals32() {
+        return ORDINALS_32.clone();
+    }
+
+    /**
+     * Crée un paquet à partir des cartes canoniques d'ordinaux donnés.
+     * 
+     * @param ordinals les ordinaux des cartes, dans l'ordre du paquet
+     * @return un Deck contenant les cartes correspondantes
+     */
+    private static Deck createDeck(int[] ordinals) {
+        return new Deck(ordinals);
+    }
+
+    /**
+     * Calcule les ordinaux d'un jeu pour chaque combinaison de nom et de couleur.
+     * 
+     * @param names les noms des cartes du jeu
+     * @return les ordinaux, nom par nom puis couleur par couleur
+     */
+    private static int[] ordinals(List<String> names) {
+        int[] ordinals = new int[names.size() * COLORS.size()];
+        int i = 0;
+        for (String name : names) {
+            for (String color : COLORS) {
+                ordinals[i++] = Card.ordinalOf(color, name);
+            }
+        }
+        return ordinals;
+    }
+}
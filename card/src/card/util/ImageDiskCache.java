@@ -0,0 +1,183 @@
+package card.util;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+
+/**
+ * Cache disque des images de cartes déjà redimensionnées.
+ * Chaque image est enregistrée sans compression (pixels ARGB 32 bits précédés d'un en-tête)
+ * dans un fichier par carte et par taille ; au lancement suivant, le fichier est projeté
+ * en mémoire et recopié directement dans l'image, sans décodage ni redimensionnement.
+ *
+ * L'en-tête contient une empreinte de la ressource source (date de modification et taille) :
+ * si la ressource change, le fichier est ignoré puis réécrit.
+ *
+ * Le répertoire est donné par la propriété système "card.cache.dir", par défaut
+ * ~/.cache/cartes. Toute erreur d'entrée/sortie désactive silencieusement le cache
+ * pour l'image concernée : l'image est alors recalculée comme sans cache.
+ */
+final class ImageDiskCache {
+    /**
+     * Signature des fichiers du cache ("CRDB").
+     */
+    private static final int MAGIC = 0x43524442;
+
+    /**
+     * Version du format, à incrémenter si l'en-tête ou le rendu changent.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Taille de l'en-tête : signature, version, empreinte, largeur, hauteur.
+     */
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 4;
+
+    /**
+     * Répertoire du cache.
+     */
+    private static final Path DIRECTORY = Path.of(System.getProperty("card.cache.dir",
+        System.getProperty("user.home") + File.separator + ".cache" + File.separator + "cartes"));
+
+    /**
+     * Empreintes déjà calculées, par URL de ressource.
+     */
+    private static final Map<String, Long> STAMPS = new ConcurrentHashMap<>();
+
+    /**
+     * Constructeur privé pour empêcher l'instanciation.
+     */
+    private ImageDiskCache() {}
+
+    /**
+     * Calcule l'empreinte d'une ressource à partir de sa date de modification et de sa taille.
+     * L'empreinte n'est calculée qu'une fois par ressource et par exécution.
+     *
+     * @param source l'URL de la ressource source
+     * @return l'empreinte, ou 0 si elle ne peut être déterminée
+     */
+    static long stamp(URL source) {
+        return STAMPS.computeIfAbsent(source.toString(), s -> computeStamp(source));
+    }
+
+    /**
+     * Lit la date et la taille dans l'entrée de l'archive ou dans le fichier lui-même, sans ouvrir
+     * de flux : interroger une URLConnection ouvrirait un flux sur le fichier (ou sur l'archive
+     * entière) qui ne serait jamais fermé. Pour les autres protocoles, ce flux est refermé aussitôt.
+     */
+    private static long computeStamp(URL source) {
+        try {
+            if ("file".equals(source.getProtocol())) {
+                Path path = Path.of(source.toURI());
+                return Files.getLastModifiedTime(path).toMillis() * 31 + Files.size(path);
+            }
+            URLConnection connection = source.openConnection();
+            if (connection instanceof JarURLConnection) {
+                JarEntry entry = ((JarURLConnection) connection).getJarEntry();
+                return entry == null ? 0 : entry.getTime() * 31 + entry.getSize();
+            }
+            long stamp = connection.getLastModified() * 31 + connection.getContentLengthLong();
+            connection.getInputStream().close();
+            return stamp;
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Lit une image du cache.
+     *
+     * @param ordinal l'ordinal de la carte (ou du dos)
+     * @param width la largeur de l'image
+     * @param height la hauteur de l'image
+     * @param stamp l'empreinte attendue de la ressource source
+     * @return l'image, ou null si elle est absente, périmée ou illisible
+     */
+    static BufferedImage read(int ordinal, int width, int height, long stamp) {
+        if (stamp == 0) {
+            return null;
+        }
+        Path file = fileOf(ordinal, width, height);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long expected = HEADER_SIZE + 4L * width * height;
+            if (channel.size() != expected) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, expected);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getLong() != stamp
+                    || buffer.getInt() != width || buffer.getInt() != height) {
+                return null;
+            }
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            buffer.asIntBuffer().get(pixels);
+            return image;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Écrit une image dans le cache. Le fichier est écrit à côté puis renommé,
+     * pour qu'un lecteur concurrent ne voie jamais un fichier incomplet.
+     *
+     * @param ordinal l'ordinal de la carte (ou du dos)
+     * @param stamp l'empreinte de la ressource source
+     * @param image l'image à enregistrer, de type TYPE_INT_ARGB
+     */
+    static void write(int ordinal, long stamp, BufferedImage image) {
+        if (stamp == 0) {
+            return;
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + 4 * pixels.length);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(stamp).putInt(width).putInt(height);
+        buffer.asIntBuffer().put(pixels);
+        buffer.rewind();
+        Path file = fileOf(ordinal, width, height);
+        Path tmp = null;
+        try {
+            Files.createDirectories(DIRECTORY);
+            tmp = Files.createTempFile(DIRECTORY, file.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            // le cache disque n'est qu'une optimisation : l'image reste utilisable
+            try {
+                if (tmp != null) {
+                    Files.deleteIfExists(tmp);
+                }
+            } catch (IOException ignored) {
+                // rien de plus à faire
+            }
+        }
+    }
+
+    private static Path fileOf(int ordinal, int width, int height) {
+        return DIRECTORY.resolve(ordinal + "_" + width + "x" + height + ".argb");
+    }
+}
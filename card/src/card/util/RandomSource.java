@@ -0,0 +1,150 @@
+package card.util;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Source de hasard injectable utilisée pour mélanger, couper et prendre les décisions aléatoires.
+ * Trois implémentations sont proposées :
+ * - {@link #splittable()} : un générateur SplittableRandom propre à son utilisateur
+ * - {@link #seeded(long)} : le même générateur initialisé avec une graine fixe, pour rejouer une partie à l'identique
+ * - {@link #threadLocal()} : le générateur de chaque thread, partagé sans contention
+ *
+ * Une source obtenue par {@link #split()} est indépendante de la source d'origine ; découper
+ * une source initialisée avec une graine donne toujours la même suite de sources.
+ */
+public abstract class RandomSource {
+
+    /**
+     * Retourne un entier uniforme entre 0 (inclus) et bound (exclu).
+     *
+     * @param bound la borne supérieure exclue, strictement positive
+     * @return un entier aléatoire
+     */
+    public abstract int nextInt(int bound);
+
+    /**
+     * Retourne un booléen uniforme.
+     *
+     * @return true ou false avec la même probabilité
+     */
+    public abstract boolean nextBoolean();
+
+    /**
+     * Retourne un réel uniforme entre 0 (inclus) et 1 (exclu).
+     *
+     * @return un réel aléatoire
+     */
+    public abstract double nextDouble();
+
+    /**
+     * Retourne un entier long uniforme.
+     *
+     * @return un long aléatoire
+     */
+    public abstract long nextLong();
+
+    /**
+     * Crée une nouvelle source indépendante, dérivée de celle-ci.
+     *
+     * @return une nouvelle source de hasard
+     */
+    public abstract RandomSource split();
+
+    /**
+     * Crée une source basée sur un SplittableRandom initialisé aléatoirement.
+     *
+     * @return une nouvelle source non partagée
+     */
+    public static RandomSource splittable() {
+        return new SplittableSource(new SplittableRandom());
+    }
+
+    /**
+     * Crée une source basée sur un SplittableRandom initialisé avec une graine fixe.
+     * Deux sources créées avec la même graine produisent exactement la même suite.
+     *
+     * @param seed la graine
+     * @return une nouvelle source reproductible
+     */
+    public static RandomSource seeded(long seed) {
+        return new SplittableSource(new SplittableRandom(seed));
+    }
+
+    /**
+     * Retourne la source utilisant le générateur du thread courant.
+     *
+     * @return la source partagée par thread
+     */
+    public static RandomSource threadLocal() {
+        return ThreadLocalSource.INSTANCE;
+    }
+
+    /**
+     * Source fondée sur un SplittableRandom, réservée à un seul thread.
+     */
+    private static final class SplittableSource extends RandomSource {
+        private final SplittableRandom random;
+
+        private SplittableSource(SplittableRandom random) {
+            this.random = random;
+        }
+
+        @Override
+        public int nextInt(int bound) {
+            return this.random.nextInt(bound);
+        }
+
+        @Override
+        public boolean nextBoolean() {
+            return this.random.nextBoolean();
+        }
+
+        @Override
+        public double nextDouble() {
+            return this.random.nextDouble();
+        }
+
+        @Override
+        public long nextLong() {
+            return this.random.nextLong();
+        }
+
+        @Override
+        public RandomSource split() {
+            return new SplittableSource(this.random.split());
+        }
+    }
+
+    /**
+     * Source déléguant au ThreadLocalRandom du thread appelant.
+     */
+    private static final class ThreadLocalSource extends RandomSource {
+        private static final ThreadLocalSource INSTANCE = new ThreadLocalSource();
+
+        @Override
+        public int nextInt(int bound) {
+            return ThreadLocalRandom.current().nextInt(bound);
+        }
+
+        @Override
+        public boolean nextBoolean() {
+            return ThreadLocalRandom.current().nextBoolean();
+        }
+
+        @Override
+        public double nextDouble() {
+            return ThreadLocalRandom.current().nextDouble();
+        }
+
+        @Override
+        public long nextLong() {
+            return ThreadLocalRandom.current().nextLong();
+        }
+
+        @Override
+        public RandomSource split() {
+            return new SplittableSource(new SplittableRandom(ThreadLocalRandom.current().nextLong()));
+        }
+    }
+}